@@ -0,0 +1,31 @@
+package com.avante.springbootjma01.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/*
+ * webapijson.auth.token.* (modo token, ver TokenService)
+ *   keys       -> id de clave -> secreto en base64 (mín. 32 bytes)
+ *   active-key -> clave con la que se firman los tokens nuevos; las demás
+ *                 solo se aceptan para verificar (rotación); obligatoria
+ *                 con más de una clave
+ */
+@ConfigurationProperties("webapijson.auth.token")
+public record TokenProperties(
+	@DefaultValue("1h")
+	Duration ttl,
+
+	String activeKey,
+
+	@DefaultValue
+	Map<String, String> keys,
+
+	@DefaultValue("token")
+	String cookie,
+
+	@DefaultValue("true")
+	boolean secureCookie
+) {}
@@ -1,6 +1,7 @@
 package com.avante.springbootjma01.config;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -10,6 +11,7 @@ import com.avante.springbootjma01.model.AuthService;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
+@EnableConfigurationProperties(TokenProperties.class)
 @RequiredArgsConstructor
 public class WebConfig {
 	@Bean
@@ -1,8 +1,14 @@
 package com.avante.springbootjma01.controller;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -10,8 +16,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.avante.springbootjma01.model.AuthService;
+import com.avante.springbootjma01.model.Authenticator;
+import com.avante.springbootjma01.model.HashingOverloadedException;
+import com.avante.springbootjma01.model.LoginThrottle;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +30,10 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthController {
 	private final AuthService auth;
+	private final LoginThrottle throttle;
+
+	// sesión o token firmado, según webapijson.auth.mode
+	private final Authenticator authenticator;
 
 	public record LoginRequest(
 		@Email
@@ -31,54 +44,89 @@ public class AuthController {
 	) {}
 
 	@PostMapping("/login")
-	public ResponseEntity<?> login (
+	public CompletableFuture<ResponseEntity<?>> login (
 		@RequestBody
 		LoginRequest req,
-		
-		HttpSession session
+
+		HttpServletRequest request
 	){
+		String ip = request.getRemoteAddr();
+
+		// antes de ir a la BD o calcular BCrypt
+		Optional<Duration> blocked = this.throttle.blockedFor(req.email(), ip);
+		if (blocked.isPresent()) {
+			return CompletableFuture.completedFuture(
+				ResponseEntity.status(429)
+					.header(
+						HttpHeaders.RETRY_AFTER,
+						String.valueOf(Math.max(1, blocked.get().toSeconds()))
+					)
+					.body(Map.of("error", "Demasiados intentos fallidos"))
+			);
+		}
+
+		// en el hilo de la petición: el callback corre en el pool de hashing
+		// y no puede tocar request ni response
+		Authenticator.SignIn signIn = this.authenticator.prepareSignIn(request);
+
 		return
 			this.auth.authenticate(req.email(), req.password())
-				.<ResponseEntity<?>>map(
-					u -> {
-						session.setAttribute("userId", u.getId());
-						session.setAttribute("fullName", u.getFullName());
-
-						return ResponseEntity.ok(
-							Map.of(
-								"id", u.getId(),
-								"email", u.getEmail(),
-								"fullName", u.getFullName()
-							)
-						);
-					}
-				)
-				.orElseGet(
-					() -> ResponseEntity.status(401).body(
-						Map.of("error", "Credenciales inválidas")
-					)
+				.thenApply(
+					user -> user
+						.<ResponseEntity<?>>map(
+							u -> {
+								this.throttle.onSuccess(req.email());
+
+								HttpHeaders headers = new HttpHeaders();
+								Map<String, Object> body = new HashMap<>(
+									signIn.complete(u, headers)
+								);
+								body.put("id", u.getId());
+								body.put("email", u.getEmail());
+								body.put("fullName", u.getFullName());
+
+								return ResponseEntity.ok().headers(headers).body(body);
+							}
+						)
+						.orElseGet(
+							() -> {
+								this.throttle.onFailure(req.email(), ip);
+								return ResponseEntity.status(401).body(
+									Map.of("error", "Credenciales inválidas")
+								);
+							}
+						)
 				);
 	}
 
+	@ExceptionHandler(HashingOverloadedException.class)
+	public ResponseEntity<?> overloaded(HashingOverloadedException ex) {
+		return ResponseEntity.status(503)
+			.header(
+				HttpHeaders.RETRY_AFTER,
+				String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds()))
+			)
+			.body(Map.of("error", ex.getMessage()));
+	}
+
 	@PostMapping("/logout")
-	public ResponseEntity<?> logout(HttpSession session) {
-		session.invalidate();
-		return ResponseEntity.ok(Map.of("ok", true));
+	public ResponseEntity<?> logout(HttpServletRequest request) {
+		HttpHeaders headers = new HttpHeaders();
+		this.authenticator.signOut(request, headers);
+		return ResponseEntity.ok().headers(headers).body(Map.of("ok", true));
 	}
 
 	@GetMapping("/me")
-	public ResponseEntity<?> me(HttpSession session) {
-		Object userId = session.getAttribute("userId");
-		if (userId == null) {
-			return ResponseEntity.status(401).body(
+	public ResponseEntity<?> me(HttpServletRequest request) {
+		return this.authenticator.current(request)
+			.<ResponseEntity<?>>map(u -> {
+				Map<String, Object> body = new HashMap<>();
+				body.put("id", u.id());
+				body.put("fullName", u.fullName());
+				return ResponseEntity.ok(body);
+			})
+			.orElseGet(() -> ResponseEntity.status(401).body(
 				Map.of("error","No autenticado")
-			);
-		}
-		return ResponseEntity.ok(
-			Map.of(
-				"id", userId,
-				"fullName", session.getAttribute("fullName")
-			)
-		);
+			));
 	}
 }
@@ -1,6 +1,7 @@
 package com.avante.springbootjma01.model;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -13,12 +14,20 @@ public class AuthService {
 	private final UserRepository repo;
 	private final BCryptPasswordEncoder encoder;
 
-	public Optional<User> authenticate (String email, String rawPassword) {
+	private final HashingExecutor hashing;
+
+	// BCrypt se ejecuta en el pool de HashingExecutor, no en el hilo de Tomcat
+	public CompletableFuture<Optional<User>> authenticate (String email, String rawPassword) {
+		Optional<User> user = repo.findByEmail(email);
+		if (user.isEmpty()) {
+			return CompletableFuture.completedFuture(Optional.empty());
+		}
 		return
-			repo.findByEmail(email)
-				.filter(
+			hashing.submit(
+				() -> user.filter(
 					u -> encoder.matches(rawPassword,u.getPasswordHash())
-				);
+				)
+			);
 	}
 
 	public void createIfNotExists(String email, String password, String fullName) {
@@ -0,0 +1,4 @@
+package com.avante.springbootjma01.model;
+
+// usuario autenticado, tal y como lo devuelve Authenticator.current()
+public record AuthUser(int id, String fullName) {}
@@ -0,0 +1,35 @@
+package com.avante.springbootjma01.model;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+ * Cómo se recuerda al usuario entre peticiones (webapijson.auth.mode):
+ *   session -> HttpSession (SessionAuthenticator, por defecto)
+ *   token   -> token firmado con HMAC, sin estado (TokenAuthenticator)
+ */
+public interface Authenticator {
+
+	// se llama en el hilo de la petición, antes de calcular el hash: lo que
+	// necesite del request (p. ej. la HttpSession) se resuelve aquí
+	SignIn prepareSignIn(HttpServletRequest request);
+
+	/*
+	 * Segunda mitad del login. Se ejecuta en el pool de hashing, así que no
+	 * puede tocar HttpServletRequest ni HttpServletResponse.
+	 */
+	@FunctionalInterface
+	interface SignIn {
+		// tras un login correcto; devuelve campos extra para la respuesta y
+		// puede añadir cabeceras (Set-Cookie)
+		Map<String, Object> complete(User user, HttpHeaders headers);
+	}
+
+	Optional<AuthUser> current(HttpServletRequest request);
+
+	void signOut(HttpServletRequest request, HttpHeaders headers);
+}
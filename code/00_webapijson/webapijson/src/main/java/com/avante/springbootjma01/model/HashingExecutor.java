@@ -0,0 +1,87 @@
+package com.avante.springbootjma01.model;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Pool fijo y cola acotada para BCrypt: los hashes no ocupan los hilos de
+ * Tomcat y, con la cola llena, se rechaza al momento (503 + Retry-After).
+ *
+ * Métricas: hashing.queue.depth, hashing.active, hashing.wait,
+ *           hashing.duration, hashing.rejected
+ */
+@Component
+public class HashingExecutor {
+	private final ThreadPoolExecutor pool;
+	private final Duration retryAfter;
+	private final Timer waitTimer;
+	private final Timer runTimer;
+	private final Counter rejected;
+
+	public HashingExecutor(
+		@Value("${webapijson.hashing.threads:0}")
+		int threads,
+
+		@Value("${webapijson.hashing.queue-capacity:64}")
+		int queueCapacity,
+
+		@Value("${webapijson.hashing.retry-after:2s}")
+		Duration retryAfter,
+
+		MeterRegistry registry
+	) {
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+		this.pool = new ThreadPoolExecutor(
+			size, size,
+			0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity),
+			Thread.ofPlatform().name("hashing-", 0).daemon(true).factory(),
+			new ThreadPoolExecutor.AbortPolicy()
+		);
+		this.retryAfter = retryAfter;
+
+		Gauge.builder("hashing.queue.depth", pool, p -> p.getQueue().size()).register(registry);
+		Gauge.builder("hashing.active", pool, ThreadPoolExecutor::getActiveCount).register(registry);
+		Gauge.builder("hashing.threads", pool, ThreadPoolExecutor::getMaximumPoolSize).register(registry);
+
+		this.waitTimer = Timer.builder("hashing.wait").publishPercentiles(0.5, 0.99).register(registry);
+		this.runTimer = Timer.builder("hashing.duration").publishPercentiles(0.5, 0.99).register(registry);
+		this.rejected = Counter.builder("hashing.rejected").register(registry);
+	}
+
+	public <T> CompletableFuture<T> submit(Supplier<T> task) {
+		long enqueued = System.nanoTime();
+		try {
+			return CompletableFuture.supplyAsync(
+				() -> {
+					waitTimer.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+					return runTimer.record(task);
+				},
+				pool
+			);
+		} catch (RejectedExecutionException ex) {
+			rejected.increment();
+			throw new HashingOverloadedException(retryAfter);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
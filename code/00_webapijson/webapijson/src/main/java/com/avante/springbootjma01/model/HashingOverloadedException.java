@@ -0,0 +1,15 @@
+package com.avante.springbootjma01.model;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+@Getter
+public class HashingOverloadedException extends RuntimeException {
+	private final Duration retryAfter;
+
+	public HashingOverloadedException(Duration retryAfter) {
+		super("Demasiados inicios de sesión simultáneos");
+		this.retryAfter = retryAfter;
+	}
+}
@@ -0,0 +1,112 @@
+package com.avante.springbootjma01.model;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/*
+ * Fallos de login por email y por IP en una ventana deslizante.
+ * Se consulta antes de ir a la BD o calcular BCrypt.
+ * Memoria acotada: Caffeine con tamaño máximo y caducidad = ventana.
+ *
+ * Métricas: login.throttle.blocked (tag key=email|ip),
+ *           login.throttle.failures, cache.size (cache=loginThrottle)
+ */
+@Component
+public class LoginThrottle {
+	private final Cache<String, SlidingWindowCounter> counters;
+	private final int slots;
+	private final long slotMillis;
+	private final int maxFailuresPerEmail;
+	private final int maxFailuresPerIp;
+	private final Counter blockedByEmail;
+	private final Counter blockedByIp;
+	private final Counter failures;
+
+	public LoginThrottle(
+		@Value("${webapijson.login-throttle.window:15m}")
+		Duration window,
+
+		@Value("${webapijson.login-throttle.slots:15}")
+		int slots,
+
+		@Value("${webapijson.login-throttle.max-failures-per-email:5}")
+		int maxFailuresPerEmail,
+
+		@Value("${webapijson.login-throttle.max-failures-per-ip:50}")
+		int maxFailuresPerIp,
+
+		@Value("${webapijson.login-throttle.max-keys:100000}")
+		long maxKeys,
+
+		MeterRegistry registry
+	) {
+		this.slots = slots;
+		this.slotMillis = Math.max(1, window.toMillis() / slots);
+		this.maxFailuresPerEmail = maxFailuresPerEmail;
+		this.maxFailuresPerIp = maxFailuresPerIp;
+
+		this.counters = Caffeine.newBuilder()
+			.maximumSize(maxKeys)
+			.expireAfterAccess(window)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(registry, counters, "loginThrottle");
+
+		this.blockedByEmail = Counter.builder("login.throttle.blocked").tag("key", "email").register(registry);
+		this.blockedByIp = Counter.builder("login.throttle.blocked").tag("key", "ip").register(registry);
+		this.failures = Counter.builder("login.throttle.failures").register(registry);
+	}
+
+	public Optional<Duration> blockedFor(String email, String ip) {
+		long now = System.currentTimeMillis();
+
+		if (count(emailKey(email), now) >= maxFailuresPerEmail) {
+			blockedByEmail.increment();
+			return Optional.of(Duration.ofMillis(slotMillis));
+		}
+		if (count(ipKey(ip), now) >= maxFailuresPerIp) {
+			blockedByIp.increment();
+			return Optional.of(Duration.ofMillis(slotMillis));
+		}
+		return Optional.empty();
+	}
+
+	public void onFailure(String email, String ip) {
+		long now = System.currentTimeMillis();
+		failures.increment();
+		counter(emailKey(email)).increment(now);
+		counter(ipKey(ip)).increment(now);
+	}
+
+	public void onSuccess(String email) {
+		counters.invalidate(emailKey(email));
+	}
+
+	private long count(String key, long now) {
+		SlidingWindowCounter counter = counters.getIfPresent(key);
+		return counter != null ? counter.sum(now) : 0;
+	}
+
+	private SlidingWindowCounter counter(String key) {
+		return counters.get(key, k -> new SlidingWindowCounter(slots, slotMillis));
+	}
+
+	private static String emailKey(String email) {
+		return "e:" + String.valueOf(email).trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static String ipKey(String ip) {
+		return "ip:" + ip;
+	}
+}
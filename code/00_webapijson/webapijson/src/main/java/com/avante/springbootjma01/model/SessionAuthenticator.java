@@ -0,0 +1,49 @@
+package com.avante.springbootjma01.model;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/*
+ * userId y fullName en la HttpSession (estado en la memoria del nodo).
+ * Solo se crea sesión en el login: /api/me anónimo no la crea.
+ * La sesión se crea en el hilo de la petición (prepareSignIn), no en el
+ * pool de hashing: ahí se añade la cookie a la respuesta.
+ */
+@Component
+@ConditionalOnProperty(name = "webapijson.auth.mode", havingValue = "session", matchIfMissing = true)
+public class SessionAuthenticator implements Authenticator {
+
+	@Override
+	public SignIn prepareSignIn(HttpServletRequest request) {
+		HttpSession session = request.getSession();
+		return (user, headers) -> {
+			session.setAttribute("userId", user.getId());
+			session.setAttribute("fullName", user.getFullName());
+			return Map.of();
+		};
+	}
+
+	@Override
+	public Optional<AuthUser> current(HttpServletRequest request) {
+		HttpSession session = request.getSession(false);
+		if (session == null || !(session.getAttribute("userId") instanceof Integer id)) {
+			return Optional.empty();
+		}
+		return Optional.of(new AuthUser(id, (String) session.getAttribute("fullName")));
+	}
+
+	@Override
+	public void signOut(HttpServletRequest request, HttpHeaders headers) {
+		HttpSession session = request.getSession(false);
+		if (session != null) {
+			session.invalidate();
+		}
+	}
+}
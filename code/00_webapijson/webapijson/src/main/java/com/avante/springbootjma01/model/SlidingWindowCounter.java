@@ -0,0 +1,55 @@
+package com.avante.springbootjma01.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Contador de ventana deslizante lock-free: cada tramo es un long con
+ * [ nº de tramo (44 bits) | contador (20 bits) ] actualizado con CAS.
+ * Los tramos caducados se ignoran al sumar (no hay hilo de limpieza).
+ */
+class SlidingWindowCounter {
+	private static final int COUNT_BITS = 20;
+	private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+	private final AtomicLongArray slots;
+	private final long slotMillis;
+
+	SlidingWindowCounter(int slots, long slotMillis) {
+		this.slots = new AtomicLongArray(slots);
+		this.slotMillis = slotMillis;
+	}
+
+	long increment(long nowMillis) {
+		long epoch = nowMillis / slotMillis;
+		int index = (int) (epoch % slots.length());
+
+		while (true) {
+			long current = slots.get(index);
+			long next = (current >>> COUNT_BITS) == epoch
+				? pack(epoch, Math.min((current & COUNT_MASK) + 1, COUNT_MASK))
+				: pack(epoch, 1);
+			if (slots.compareAndSet(index, current, next)) {
+				break;
+			}
+		}
+		return sum(nowMillis);
+	}
+
+	long sum(long nowMillis) {
+		long epoch = nowMillis / slotMillis;
+		int length = slots.length();
+
+		long total = 0;
+		for (int i = 0; i < length; i++) {
+			long value = slots.get(i);
+			if (epoch - (value >>> COUNT_BITS) < length) {
+				total += value & COUNT_MASK;
+			}
+		}
+		return total;
+	}
+
+	private static long pack(long epoch, long count) {
+		return (epoch << COUNT_BITS) | count;
+	}
+}
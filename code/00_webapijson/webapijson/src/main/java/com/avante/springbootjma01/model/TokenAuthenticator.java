@@ -0,0 +1,85 @@
+package com.avante.springbootjma01.model;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import com.avante.springbootjma01.config.TokenProperties;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+ * Sin estado: el login devuelve un token firmado (TokenService) en el
+ * cuerpo y en una cookie HttpOnly. Se acepta en la cabecera
+ *   Authorization: Bearer <token>
+ * o en la cookie. No se crea HttpSession ni se consulta la BD.
+ */
+@Component
+@ConditionalOnProperty(name = "webapijson.auth.mode", havingValue = "token")
+public class TokenAuthenticator implements Authenticator {
+	private static final String BEARER = "Bearer ";
+
+	private final TokenService tokens;
+	private final String cookieName;
+	private final boolean secureCookie;
+
+	public TokenAuthenticator(TokenService tokens, TokenProperties props) {
+		this.tokens = tokens;
+		this.cookieName = props.cookie();
+		this.secureCookie = props.secureCookie();
+	}
+
+	@Override
+	public SignIn prepareSignIn(HttpServletRequest request) {
+		// no necesita nada del request: la cookie va en las cabeceras
+		return (user, headers) -> {
+			String token = tokens.issue(user.getId(), user.getFullName());
+			headers.add(HttpHeaders.SET_COOKIE, cookie(token, tokens.getTtl()));
+			return Map.of(
+				"token", token,
+				"expiresIn", tokens.getTtl().toSeconds()
+			);
+		};
+	}
+
+	@Override
+	public Optional<AuthUser> current(HttpServletRequest request) {
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header != null && header.startsWith(BEARER)) {
+			return tokens.verify(header.substring(BEARER.length()).trim());
+		}
+
+		Cookie[] cookies = request.getCookies();
+		if (cookies != null) {
+			for (Cookie c : cookies) {
+				if (cookieName.equals(c.getName())) {
+					return tokens.verify(c.getValue());
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	// el token sigue siendo válido hasta que caduca; solo se borra la cookie
+	@Override
+	public void signOut(HttpServletRequest request, HttpHeaders headers) {
+		headers.add(HttpHeaders.SET_COOKIE, cookie("", Duration.ZERO));
+	}
+
+	private String cookie(String value, Duration maxAge) {
+		return ResponseCookie.from(cookieName, value)
+			.httpOnly(true)
+			.secure(secureCookie)
+			.sameSite("Strict")
+			.path("/api")
+			.maxAge(maxAge)
+			.build()
+			.toString();
+	}
+}
@@ -0,0 +1,198 @@
+package com.avante.springbootjma01.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.avante.springbootjma01.config.TokenProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Tokens firmados con HMAC-SHA256:
+ *
+ *   <kid>.<base64url(datos)>.<base64url(firma)>
+ *   datos = userId (int) + expira (long, segundos epoch) + fullName (UTF)
+ *   firma = HMAC(claves[kid], "<kid>.<base64url(datos)>")
+ *
+ * Verificar no usa sesión ni BD: solo la clave y el reloj. Cualquier nodo
+ * con las mismas claves acepta el token.
+ *
+ * Rotación: se firma con active-key y se acepta cualquier clave de keys.
+ * active-key es obligatoria si hay más de una clave.
+ *   1. añadir la clave nueva a keys en todos los nodos
+ *   2. cambiar active-key
+ *   3. pasado ttl, quitar la clave vieja
+ *
+ * Sin claves configuradas se genera una aleatoria al arrancar (solo sirve
+ * con un nodo y los tokens no sobreviven a un reinicio).
+ *
+ * Un token no se puede revocar antes de caducar: ttl corto.
+ *
+ * Métricas: auth.token.rejected (tag reason=format|key|signature|expired)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "webapijson.auth.mode", havingValue = "token")
+public class TokenService {
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final int MIN_KEY_BYTES = 32;
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final Map<String, SecretKeySpec> keys = new HashMap<>();
+	private final String activeKey;
+	private final Duration ttl;
+	private final Clock clock;
+
+	// Mac no es thread-safe: una instancia por hilo y clave
+	private final ThreadLocal<Map<String, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+
+	private final Map<String, Counter> rejected = new HashMap<>();
+
+	public TokenService(TokenProperties props, MeterRegistry registry) {
+		this.ttl = props.ttl();
+		this.clock = Clock.systemUTC();
+
+		props.keys().forEach((kid, secret) -> {
+			byte[] bytes = Base64.getDecoder().decode(secret);
+			if (bytes.length < MIN_KEY_BYTES) {
+				throw new IllegalArgumentException(
+					"La clave " + kid + " debe tener al menos " + MIN_KEY_BYTES + " bytes");
+			}
+			if (!kid.matches("[A-Za-z0-9_-]+")) {
+				throw new IllegalArgumentException("Id de clave no válido: " + kid);
+			}
+			keys.put(kid, new SecretKeySpec(bytes, ALGORITHM));
+		});
+
+		if (keys.isEmpty()) {
+			log.warn("Sin webapijson.auth.token.keys: se usa una clave aleatoria (un solo nodo)");
+			byte[] random = new byte[MIN_KEY_BYTES];
+			new SecureRandom().nextBytes(random);
+			keys.put("local", new SecretKeySpec(random, ALGORITHM));
+			this.activeKey = "local";
+		} else if (props.activeKey() != null && !props.activeKey().isBlank()) {
+			this.activeKey = props.activeKey();
+		} else if (keys.size() == 1) {
+			this.activeKey = keys.keySet().iterator().next();
+		} else {
+			// Elegir una cualquiera podría dar claves distintas en cada nodo
+			throw new IllegalArgumentException(
+				"Con varias claves en webapijson.auth.token.keys hay que indicar active-key");
+		}
+		if (!keys.containsKey(activeKey)) {
+			throw new IllegalArgumentException("active-key no está en keys: " + activeKey);
+		}
+
+		for (String reason : new String[] { "format", "key", "signature", "expired" }) {
+			rejected.put(reason, Counter.builder("auth.token.rejected").tag("reason", reason).register(registry));
+		}
+	}
+
+	public Duration getTtl() {
+		return ttl;
+	}
+
+	public String issue(int userId, String fullName) {
+		long expires = clock.instant().plus(ttl).getEpochSecond();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(userId);
+			out.writeLong(expires);
+			out.writeUTF(fullName != null ? fullName : "");
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		String signed = activeKey + "." + ENCODER.encodeToString(bytes.toByteArray());
+		return signed + "." + ENCODER.encodeToString(sign(activeKey, signed));
+	}
+
+	public Optional<AuthUser> verify(String token) {
+		if (token == null) {
+			return Optional.empty();
+		}
+
+		int first = token.indexOf('.');
+		int last = token.lastIndexOf('.');
+		if (first <= 0 || last == first) {
+			return reject("format");
+		}
+
+		String kid = token.substring(0, first);
+		if (!keys.containsKey(kid)) {
+			return reject("key");
+		}
+
+		String signed = token.substring(0, last);
+		byte[] signature;
+		byte[] data;
+		try {
+			signature = DECODER.decode(token.substring(last + 1));
+			data = DECODER.decode(token.substring(first + 1, last));
+		} catch (IllegalArgumentException ex) {
+			return reject("format");
+		}
+
+		// comparación en tiempo constante
+		if (!MessageDigest.isEqual(signature, sign(kid, signed))) {
+			return reject("signature");
+		}
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			int userId = in.readInt();
+			long expires = in.readLong();
+			String fullName = in.readUTF();
+
+			if (Instant.ofEpochSecond(expires).isBefore(clock.instant())) {
+				return reject("expired");
+			}
+			return Optional.of(new AuthUser(userId, fullName.isEmpty() ? null : fullName));
+		} catch (IOException ex) {
+			return reject("format");
+		}
+	}
+
+	private byte[] sign(String kid, String signed) {
+		Mac mac = macs.get().computeIfAbsent(kid, k -> {
+			try {
+				Mac m = Mac.getInstance(ALGORITHM);
+				m.init(keys.get(k));
+				return m;
+			} catch (GeneralSecurityException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		return mac.doFinal(signed.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private Optional<AuthUser> reject(String reason) {
+		rejected.get(reason).increment();
+		return Optional.empty();
+	}
+}
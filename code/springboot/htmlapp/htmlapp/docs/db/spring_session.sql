@@ -0,0 +1,51 @@
+-- vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+-- ============================================================================
+-- TABLAS DE SESIONES HTTP (Spring Session JDBC)
+-- ============================================================================
+-- Solo se usan con htmlapp.sessions.store=jdbc. Es el esquema de Spring
+-- Session para PostgreSQL (schema-postgresql.sql) con IF NOT EXISTS.
+--
+-- Con htmlapp.sessions.jdbc.initialize-schema=true la aplicación las crea
+-- al arrancar; este script sirve para crearlas a mano cuando el usuario de
+-- la aplicación no tiene permisos de CREATE TABLE.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS spring_session (
+		primary_id CHAR(36) NOT NULL,
+		-- Clave interna (no cambia al rotar el ID de sesión)
+
+		session_id CHAR(36) NOT NULL,
+		-- ID de sesión que viaja en la cookie SESSION (en base64)
+
+		creation_time BIGINT NOT NULL,
+		last_access_time BIGINT NOT NULL,
+		max_inactive_interval INT NOT NULL,
+		-- Tiempos en milisegundos desde 1970 e inactividad máxima en segundos
+
+		expiry_time BIGINT NOT NULL,
+		-- Momento de caducidad: lo usa la limpieza por lotes
+
+		principal_name VARCHAR(100),
+		-- Sin uso en htmlapp (lo rellena Spring Security)
+
+		CONSTRAINT spring_session_pk PRIMARY KEY (primary_id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS spring_session_ix1 ON spring_session (session_id);
+CREATE INDEX IF NOT EXISTS spring_session_ix2 ON spring_session (expiry_time);
+CREATE INDEX IF NOT EXISTS spring_session_ix3 ON spring_session (principal_name);
+
+CREATE TABLE IF NOT EXISTS spring_session_attributes (
+		session_primary_id CHAR(36) NOT NULL,
+		attribute_name VARCHAR(200) NOT NULL,
+
+		attribute_bytes BYTEA NOT NULL,
+		-- Valor en el formato de CompactSessionSerializer
+
+		CONSTRAINT spring_session_attributes_pk
+				PRIMARY KEY (session_primary_id, attribute_name),
+		CONSTRAINT spring_session_attributes_fk
+				FOREIGN KEY (session_primary_id)
+				REFERENCES spring_session (primary_id) ON DELETE CASCADE
+);
@@ -18,24 +18,112 @@ CREATE TABLE IF NOT EXISTS users (
 		email VARCHAR(255) NOT NULL UNIQUE,
 		-- Correo electrónico del usuario (debe ser único y obligatorio)
 
+		email_domain VARCHAR(255)
+				GENERATED ALWAYS AS (lower(split_part(email, '@', 2))) STORED,
+		-- Dominio del email en minúsculas, calculado por PostgreSQL.
+		-- Permite filtrar por dominio con un índice normal.
+
 		full_name VARCHAR(255),
 		-- Nombre completo del usuario
 
 		salt VARCHAR(60) NOT NULL,
 		-- Cadena aleatoria (salt) utilizada para proteger el hash de la contraseña
 
-		password_hash VARCHAR(80) NOT NULL,
-		-- Hash de la contraseña cifrada (contraseña + salt)
+		password_hash VARCHAR(255) NOT NULL,
+		-- Hash autodescriptivo de la contraseña: SHA-256 (formato original),
+		-- $pbkdf2-sha256$... o $2a$... (BCrypt). Ver PasswordService.
 
 		is_admin BOOLEAN NOT NULL DEFAULT FALSE,
 		-- Indica si el usuario tiene privilegios de administrador.
 		-- NOT NULL evita valores nulos y DEFAULT FALSE asegura que todos los
 		-- usuarios nuevos sean no administradores por defecto.
 
-		creation_datetime TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+		creation_datetime TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 		-- Fecha y hora de creación del registro (puesta automáticamente por la BD)
+
+		version BIGINT NOT NULL DEFAULT 0
+		-- Versión de la fila (@Version en la entidad User): se incrementa en
+		-- cada cambio del usuario
 );
 
+-- Si la tabla ya existía con password_hash VARCHAR(80): los formatos PBKDF2
+-- y BCrypt necesitan más espacio. (ddl-auto: update no amplía columnas.)
+ALTER TABLE users
+		ALTER COLUMN password_hash TYPE VARCHAR(255);
+
+-- Si la tabla ya existía sin la columna de versión:
+ALTER TABLE users
+		ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ============================================================================
+-- ÍNDICES PARA LA PAGINACIÓN KEYSET DEL LISTADO (/userlist/list)
+-- ============================================================================
+-- Cada orden del listado es (clave, id_user). Con un índice compuesto en ese
+-- mismo orden, "la página siguiente al cursor" es un recorrido de rango del
+-- índice que lee exactamente las filas de la página, sin ordenar ni saltar.
+-- PostgreSQL puede recorrer el índice en ambos sentidos, así que sirve tanto
+-- para ASC como para DESC.
+--
+-- El nombre se indexa como COALESCE(full_name, '') porque es la expresión
+-- por la que ordena la consulta (full_name admite NULL).
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS users_email_id_idx
+		ON users (email, id_user);
+
+CREATE INDEX IF NOT EXISTS users_full_name_id_idx
+		ON users ((COALESCE(full_name, '')), id_user);
+
+CREATE INDEX IF NOT EXISTS users_creation_id_idx
+		ON users (creation_datetime, id_user);
+
+-- ============================================================================
+-- ÍNDICES PARA LOS FILTROS DEL LISTADO (UserSpecifications)
+-- ============================================================================
+-- Cada filtro del listado se traduce en una expresión que coincide con la de
+-- un índice, para que PostgreSQL haga Index Scan / Bitmap Index Scan en vez
+-- de recorrer la tabla completa (Seq Scan). Se puede comprobar con:
+--
+--    EXPLAIN ANALYZE SELECT ... FROM users WHERE email_domain = 'empresa.com'
+--                    ORDER BY email, id_user LIMIT 51;
+-- ============================================================================
+
+-- Si la tabla ya existía antes de añadir la columna generada:
+ALTER TABLE users
+		ADD COLUMN IF NOT EXISTS email_domain VARCHAR(255)
+				GENERATED ALWAYS AS (lower(split_part(email, '@', 2))) STORED;
+
+-- Filtro por dominio (email_domain = ?). Incluye (email, id_user) para que el
+-- orden por email dentro de un dominio salga directamente del índice.
+CREATE INDEX IF NOT EXISTS users_email_domain_email_id_idx
+		ON users (email_domain, email, id_user);
+
+-- Filtro "solo administradores" (is_admin). Índice PARCIAL: solo contiene las
+-- filas de administradores, que son muy pocas, así que es diminuto. El filtro
+-- contrario (no administradores) es la mayoría de la tabla y se resuelve con
+-- los índices de orden anteriores.
+CREATE INDEX IF NOT EXISTS users_admins_creation_id_idx
+		ON users (creation_datetime, id_user)
+		WHERE is_admin;
+
+-- Filtro "nombre contiene" (lower(full_name) LIKE '%texto%'). Un B-tree no
+-- sirve para patrones que empiezan por '%'; la extensión pg_trgm indexa los
+-- trigramas del texto y permite usar un índice GIN con LIKE.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS users_full_name_trgm_idx
+		ON users USING gin (lower(full_name) gin_trgm_ops);
+
+-- Búsqueda libre del listado (lower(email) LIKE '%texto%' OR
+-- lower(full_name) LIKE '%texto%'). Con un índice de trigramas en cada
+-- columna, PostgreSQL combina ambos con un BitmapOr y responde en
+-- milisegundos aunque la tabla tenga millones de filas.
+CREATE INDEX IF NOT EXISTS users_email_trgm_idx
+		ON users USING gin (lower(email) gin_trgm_ops);
+
+-- El rango de fechas de alta (creation_datetime >= ? AND < ?) usa el índice
+-- users_creation_id_idx definido más arriba.
+
 -- ============================================================================
 -- COMENTARIOS DIDÁCTICOS
 -- ============================================================================
@@ -0,0 +1,13 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Comprueba que las peticiones anónimas a / y /login no crean sesiones
+REM HTTP (el número de sesiones de Tomcat debe quedarse plano).
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   anonymous-session-check.bat [--requests 100000] [--threads 32]
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando AnonymousSessionCheck ===
+mvn compile exec:java -Dexec.mainClass="com.example.htmlapp.tools.AnonymousSessionCheck" -Dexec.args="%*"
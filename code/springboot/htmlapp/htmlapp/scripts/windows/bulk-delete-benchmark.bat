@@ -0,0 +1,13 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Benchmark del borrado masivo: sentencias SQL por lote y tiempo total,
+REM antes (borrado derivado de Spring Data) y después (un solo DELETE).
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   bulk-delete-benchmark.bat [--users 10000] [--chunk-size 1000] [--rounds 3]
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando BulkDeleteBenchmark ===
+mvn compile exec:java -Dexec.mainClass="com.example.htmlapp.tools.BulkDeleteBenchmark" -Dexec.args="%*"
@@ -0,0 +1,13 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Comprueba que las consultas con listas IN de tamaño variable generan un
+REM número acotado de sentencias SQL distintas (relleno de listas IN).
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   in-clause-plan-cache-check.bat [--requests 10000] [--max-size 1000] [--padding true|false]
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando InClausePlanCacheCheck ===
+mvn compile exec:java -Dexec.mainClass="com.example.htmlapp.tools.InClausePlanCacheCheck" -Dexec.args="%*"
@@ -0,0 +1,13 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Benchmark del login: sentencias SQL por login y latencia p99 con varios
+REM hilos, antes y después de verificar contra la fila ya cargada.
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   login-benchmark.bat --email <email> --password <pwd> [--threads 16] [--iterations 5000]
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando LoginBenchmark ===
+mvn compile exec:java -Dexec.mainClass="com.example.htmlapp.tools.LoginBenchmark" -Dexec.args="%*"
@@ -0,0 +1,17 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Benchmarks JMH de PasswordService (operaciones/s y bytes por operación).
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   password-benchmark.bat                -> todos los benchmarks
+REM   password-benchmark.bat hash -t 8      -> filtro y opciones de JMH
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando PasswordServiceBenchmark (JMH) ===
+if "%~1"=="" (
+	mvn -Pjmh compile exec:exec -Djmh.args="PasswordServiceBenchmark"
+) else (
+	mvn -Pjmh compile exec:exec -Djmh.args="%*"
+)
@@ -0,0 +1,13 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Bytes por sesión del usuario guardado en la sesión HTTP: entidad User
+REM completa (antes) frente a SessionUser (ahora), serializado y en memoria.
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   session-footprint.bat [--sessions 100000]
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando SessionFootprint ===
+mvn compile exec:java -Dexec.mainClass="com.example.htmlapp.tools.SessionFootprint" -Dexec.args="%*"
@@ -0,0 +1,18 @@
+@echo off
+REM vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab :
+
+REM -----------------------------------------------------------------------------
+REM Comprueba que dos instancias de la aplicación comparten las sesiones
+REM guardadas en la base de datos (htmlapp.sessions.store=jdbc).
+REM -----------------------------------------------------------------------------
+REM Uso:
+REM   shared-session-check.bat          → con la base de datos de application.yml
+REM   shared-session-check.bat --h2     → con H2 en memoria (sin PostgreSQL)
+REM -----------------------------------------------------------------------------
+
+echo === Ejecutando SharedSessionCheck ===
+
+set PROFILE=
+if /I "%~1"=="--h2" set PROFILE=-Ph2
+
+mvn %PROFILE% compile exec:java -Dexec.mainClass="com.example.htmlapp.tools.SharedSessionCheck" -Dexec.args="%*"
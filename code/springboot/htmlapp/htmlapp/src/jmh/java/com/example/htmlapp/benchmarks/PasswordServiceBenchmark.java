@@ -0,0 +1,135 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.benchmarks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.htmlapp.model.enums.PasswordAlgorithm;
+import com.example.htmlapp.model.logic.PasswordService;
+
+/**
+ * Benchmarks JMH de PasswordService.
+ *
+ * Mide operaciones por segundo de:
+ *  - generateSalt()
+ *  - hashPassword()
+ *  - verifyPassword() (contraseña correcta e incorrecta)
+ *
+ * para cada algoritmo (parámetro `algorithm`) con el coste indicado en
+ * `pbkdf2Iterations` / `bcryptCost`. Así se puede elegir el coste según la
+ * latencia de login aceptable:
+ *
+ *   -Djmh.args="PasswordServiceBenchmark.verifyMatch -p algorithm=BCRYPT -p bcryptCost=10,11,12"
+ *
+ * y, como referencia, la implementación anterior (`legacy*`): SecureRandom y
+ * MessageDigest nuevos en cada llamada, concatenación de cadenas y equals().
+ *
+ * Con `-prof gc` (activado en el perfil Maven `jmh`) JMH añade la columna
+ * gc.alloc.rate.norm: bytes asignados por operación.
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ *   mvn -Pjmh compile exec:exec
+ *   mvn -Pjmh compile exec:exec -Djmh.args="PasswordServiceBenchmark -t 8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordServiceBenchmark {
+
+	private static final String PASSWORD = "contraseña-de-prueba-1234";
+
+	@Param({"SHA256", "PBKDF2", "BCRYPT"})
+	private PasswordAlgorithm algorithm;
+
+	@Param("310000")
+	private int pbkdf2Iterations;
+
+	@Param("12")
+	private int bcryptCost;
+
+	private PasswordService passwordService;
+	private String salt;
+	private String hash;
+	private String legacyStoredHash;
+
+	@Setup
+	public void setup() throws NoSuchAlgorithmException {
+		passwordService = new PasswordService(algorithm, pbkdf2Iterations, bcryptCost);
+		salt = passwordService.generateSalt();
+		hash = passwordService.hashPassword(PASSWORD, salt);
+		legacyStoredHash = legacyHash(PASSWORD, salt);
+	}
+
+	// -------------------------------------------------------------------------
+	// IMPLEMENTACIÓN ACTUAL
+	// -------------------------------------------------------------------------
+
+	@Benchmark
+	public String generateSalt() {
+		return passwordService.generateSalt();
+	}
+
+	@Benchmark
+	public String hash() {
+		return passwordService.hashPassword(PASSWORD, salt);
+	}
+
+	@Benchmark
+	public boolean verifyMatch() {
+		return passwordService.verifyPassword(PASSWORD, salt, hash);
+	}
+
+	@Benchmark
+	public boolean verifyMismatch() {
+		return passwordService.verifyPassword("otra-contraseña", salt, hash);
+	}
+
+	// -------------------------------------------------------------------------
+	// IMPLEMENTACIÓN ANTERIOR (REFERENCIA)
+	// -------------------------------------------------------------------------
+
+	@Benchmark
+	public String legacyGenerateSalt() {
+		byte[] bytes = new byte[16];
+		new SecureRandom().nextBytes(bytes);
+		return Base64.getEncoder().encodeToString(bytes);
+	}
+
+	@Benchmark
+	public String legacyHash() throws NoSuchAlgorithmException {
+		return legacyHash(PASSWORD, salt);
+	}
+
+	@Benchmark
+	public boolean legacyVerifyMatch() throws NoSuchAlgorithmException {
+		return legacyHash(PASSWORD, salt).equals(legacyStoredHash);
+	}
+
+	private static String legacyHash(String password, String salt)
+			throws NoSuchAlgorithmException {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		byte[] bytes = digest.digest((password + salt).getBytes());
+		return Base64.getEncoder().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,104 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Map;
+
+import org.apache.catalina.Manager;
+import org.apache.catalina.session.StandardSession;
+
+/**
+ * Sesión de Tomcat que lleva la cuenta aproximada de lo que ocupa.
+ *
+ * Cada vez que se añade, sustituye o elimina un atributo se recalcula el
+ * tamaño estimado de la sesión:
+ *
+ *   BASE_BYTES + Σ (nombre del atributo + valor serializado)
+ *
+ * El tamaño serializado no es exactamente lo que ocupa el objeto en memoria,
+ * pero es proporcional y se calcula sin herramientas externas. El cálculo
+ * solo ocurre al escribir atributos (login, refreshUser...), nunca en cada
+ * petición; si un atributo se modifica "por dentro" sin volver a guardarlo,
+ * la estimación no se actualiza.
+ */
+public class BoundedSession extends StandardSession {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Coste fijo aproximado de una sesión vacía: el objeto StandardSession,
+	 * su identificador y los mapas internos de atributos y notas.
+	 */
+	static final long BASE_BYTES = 512;
+
+	/** Estimación para atributos que no se pueden serializar. */
+	private static final long NOT_SERIALIZABLE_BYTES = 256;
+
+	private volatile long estimatedBytes = BASE_BYTES;
+
+	public BoundedSession(Manager manager) {
+		super(manager);
+	}
+
+	/** Tamaño estimado de la sesión en bytes. */
+	public long getEstimatedBytes() {
+		return estimatedBytes;
+	}
+
+	@Override
+	public void setAttribute(String name, Object value, boolean notify) {
+		super.setAttribute(name, value, notify);
+		estimatedBytes = estimate();
+	}
+
+	@Override
+	public void removeAttribute(String name, boolean notify) {
+		super.removeAttribute(name, notify);
+		estimatedBytes = estimate();
+	}
+
+	// -------------------------------------------------------------------------
+	// ESTIMACIÓN
+	// -------------------------------------------------------------------------
+
+	private long estimate() {
+		long total = BASE_BYTES;
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			total += 2L * attribute.getKey().length() + sizeOf(attribute.getValue());
+		}
+		return total;
+	}
+
+	private static long sizeOf(Object value) {
+		if (!(value instanceof Serializable)) {
+			return NOT_SERIALIZABLE_BYTES;
+		}
+
+		CountingOutputStream counter = new CountingOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(counter)) {
+			out.writeObject(value);
+		} catch (IOException | RuntimeException ex) {
+			return NOT_SERIALIZABLE_BYTES;
+		}
+		return counter.count;
+	}
+
+	/** OutputStream que solo cuenta bytes (no guarda nada). */
+	private static final class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.apache.catalina.Session;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+
+import com.example.htmlapp.model.logic.SlidingWindowCounter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gestor de sesiones de Tomcat con número máximo de sesiones activas.
+ *
+ * El StandardManager de Tomcat guarda las sesiones en memoria sin límite:
+ * en un pico de tráfico el número de sesiones (y la memoria) crece hasta que
+ * caducan por inactividad. Este gestor añade:
+ *
+ * - Máximo de sesiones activas (htmlapp.sessions.max-active). Al crear una
+ *   sesión con el cupo lleno, se expulsan primero las MÁS INACTIVAS (las que
+ *   llevan más tiempo sin recibir peticiones, orden LRU). Se expulsa un lote
+ *   (htmlapp.sessions.evict-fraction del máximo) de una vez, para no recorrer
+ *   y ordenar todas las sesiones en cada creación.
+ * - Estimación de tamaño por sesión (BoundedSession).
+ * - Estadísticas para la página /admin/sessions y para Micrometer:
+ *     sessions.evicted          → sesiones expulsadas por falta de cupo
+ *     sessions.estimated.bytes  → suma de los tamaños estimados
+ *
+ * Con el máximo fijado, la memoria de sesiones queda acotada a
+ * (máximo × tamaño medio), haya el tráfico que haya.
+ */
+@Slf4j
+public final class BoundedSessionManager extends StandardManager implements SessionStatsSource {
+
+	private final int maxActive;
+	private final int evictBatch;
+
+	private final Counter evictedCounter;
+	private final SlidingWindowCounter evictedLastMinute = new SlidingWindowCounter(60, 1000);
+
+	/**
+	 * @param maxActive     Máximo de sesiones activas (0 = sin límite).
+	 * @param evictFraction Fracción del máximo que se expulsa de una vez.
+	 * @param meterRegistry Registro de métricas.
+	 */
+	public BoundedSessionManager(int maxActive, double evictFraction, MeterRegistry meterRegistry) {
+		this.maxActive = maxActive;
+		this.evictBatch = Math.max(1, (int) (maxActive * evictFraction));
+
+		this.evictedCounter = Counter.builder("sessions.evicted")
+			.description("Sesiones expulsadas por superar el máximo de sesiones activas")
+			.register(meterRegistry);
+		Gauge.builder("sessions.estimated.bytes", this, BoundedSessionManager::getEstimatedBytes)
+			.description("Tamaño estimado de todas las sesiones activas")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+
+	// -------------------------------------------------------------------------
+	// CREACIÓN Y EXPULSIÓN
+	// -------------------------------------------------------------------------
+
+	@Override
+	protected StandardSession getNewSession() {
+		return new BoundedSession(this);
+	}
+
+	@Override
+	public Session createSession(String sessionId) {
+		if (maxActive > 0 && getActiveSessions() >= maxActive) {
+			evictIdle();
+		}
+		return super.createSession(sessionId);
+	}
+
+	/**
+	 * Expulsa las sesiones más inactivas hasta dejar hueco para un lote de
+	 * sesiones nuevas. Solo un hilo expulsa a la vez; los demás, al entrar,
+	 * ven que ya hay hueco y no hacen nada.
+	 */
+	private synchronized void evictIdle() {
+		int excess = getActiveSessions() - maxActive;
+		if (excess < 0) {
+			return;
+		}
+
+		Session[] all = findSessions();
+		Arrays.sort(all, Comparator.comparingLong(Session::getThisAccessedTimeInternal));
+
+		int target = Math.min(all.length, excess + evictBatch);
+		long now = System.currentTimeMillis();
+		int evicted = 0;
+
+		for (int i = 0; i < target; i++) {
+			Session session = all[i];
+			if (session.isValid()) {
+				session.expire();
+				evicted++;
+			}
+		}
+
+		evictedCounter.increment(evicted);
+		for (int i = 0; i < evicted; i++) {
+			evictedLastMinute.increment(now);
+		}
+		log.info("Expulsadas {} sesiones inactivas (máximo {} activas)", evicted, maxActive);
+	}
+
+	// -------------------------------------------------------------------------
+	// ESTADÍSTICAS
+	// -------------------------------------------------------------------------
+
+	/** Suma de los tamaños estimados de las sesiones activas. */
+	public long getEstimatedBytes() {
+		long total = 0;
+		for (Session session : findSessions()) {
+			total += estimatedBytes(session);
+		}
+		return total;
+	}
+
+	@Override
+	public SessionStats stats() {
+		Session[] all = findSessions();
+
+		long total = 0;
+		long largest = 0;
+		for (Session session : all) {
+			long bytes = estimatedBytes(session);
+			total += bytes;
+			largest = Math.max(largest, bytes);
+		}
+
+		return new SessionStats(
+			all.length,
+			maxActive,
+			total,
+			all.length > 0 ? total / all.length : 0,
+			largest,
+			getSessionCounter(),
+			getExpiredSessions(),
+			(long) evictedCounter.count(),
+			evictedLastMinute.sum(System.currentTimeMillis())
+		);
+	}
+
+	private static long estimatedBytes(Session session) {
+		return session instanceof BoundedSession bounded
+			? bounded.getEstimatedBytes()
+			: BoundedSession.BASE_BYTES;
+	}
+}
@@ -0,0 +1,142 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+import com.example.htmlapp.model.logic.SessionUser;
+
+/**
+ * Formato binario compacto para los atributos de sesión guardados en la
+ * base de datos (almacén JDBC).
+ *
+ * Spring Session serializa cada atributo con la serialización estándar de
+ * Java, que escribe el nombre de la clase, los nombres y tipos de los campos,
+ * etc. Para un SessionUser eso son varios cientos de bytes; con este formato
+ * son solo los valores:
+ *
+ *   [etiqueta: 1 byte][valores...]
+ *
+ *   1 → SessionUser   id (int), email (UTF), fullName (bool + UTF),
+ *                     admin (bool), version (long)
+ *   2 → String        UTF (las muy largas van en formato Java)
+ *   3 → Integer       int
+ *   4 → Long          long
+ *   5 → Boolean       bool
+ *   0 → cualquier otro objeto, con la serialización estándar de Java
+ *       (p. ej. los mensajes flash de Spring MVC)
+ *
+ * Es el formato de la tabla SPRING_SESSION_ATTRIBUTES: si se cambia, las
+ * sesiones guardadas con el formato anterior dejan de poder leerse (se
+ * pierde la sesión, no hay más daño). Añadir etiquetas nuevas es seguro.
+ */
+public class CompactSessionSerializer {
+
+	private static final byte JAVA = 0;
+	private static final byte SESSION_USER = 1;
+	private static final byte STRING = 2;
+	private static final byte INTEGER = 3;
+	private static final byte LONG = 4;
+	private static final byte BOOLEAN = 5;
+
+	/* writeUTF admite hasta 65535 bytes (3 por carácter en el peor caso) */
+	private static final int MAX_UTF_CHARS = 65535 / 3;
+
+	private final SerializingConverter javaSerializer = new SerializingConverter();
+	private final DeserializingConverter javaDeserializer;
+
+	/**
+	 * @param classLoader Cargador de clases para los objetos en formato Java.
+	 */
+	public CompactSessionSerializer(ClassLoader classLoader) {
+		this.javaDeserializer = new DeserializingConverter(classLoader);
+	}
+
+	/**
+	 * Convierte un atributo de sesión en bytes.
+	 */
+	public byte[] serialize(Object value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			if (value instanceof SessionUser user) {
+				out.writeByte(SESSION_USER);
+				out.writeInt(user.id());
+				out.writeUTF(user.email());
+				writeNullableUTF(out, user.fullName());
+				out.writeBoolean(user.admin());
+				out.writeLong(user.version());
+			} else if (value instanceof String s && s.length() <= MAX_UTF_CHARS) {
+				out.writeByte(STRING);
+				out.writeUTF(s);
+			} else if (value instanceof Integer i) {
+				out.writeByte(INTEGER);
+				out.writeInt(i);
+			} else if (value instanceof Long l) {
+				out.writeByte(LONG);
+				out.writeLong(l);
+			} else if (value instanceof Boolean b) {
+				out.writeByte(BOOLEAN);
+				out.writeBoolean(b);
+			} else {
+				out.writeByte(JAVA);
+				out.write(javaSerializer.convert(value));
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reconstruye un atributo de sesión a partir de sus bytes.
+	 */
+	public Object deserialize(byte[] data) {
+		if (data[0] == JAVA) {
+			return javaDeserializer.convert(Arrays.copyOfRange(data, 1, data.length));
+		}
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 1, data.length - 1))) {
+			return switch (data[0]) {
+				case SESSION_USER -> new SessionUser(
+					in.readInt(),
+					in.readUTF(),
+					readNullableUTF(in),
+					in.readBoolean(),
+					in.readLong()
+				);
+				case STRING -> in.readUTF();
+				case INTEGER -> in.readInt();
+				case LONG -> in.readLong();
+				case BOOLEAN -> in.readBoolean();
+				default -> throw new IllegalArgumentException(
+					"Formato de atributo de sesión desconocido: " + data[0]);
+			};
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readNullableUTF(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
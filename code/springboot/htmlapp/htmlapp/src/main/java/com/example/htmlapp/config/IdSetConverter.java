@@ -0,0 +1,42 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.util.Set;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+
+import com.example.htmlapp.model.logic.IdSet;
+
+/**
+ * Convierte los parámetros de petición en IdSet (formato "1-500,502-900").
+ *
+ * Admite tanto un valor ("ids=1-500,502-900", el campo oculto de la
+ * confirmación) como varios ("ids=3&ids=7", las casillas del listado).
+ * Con un Converter<String, IdSet> normal, Spring solo convertiría el
+ * PRIMER valor de un parámetro repetido; por eso se declaran los dos tipos
+ * de origen.
+ *
+ * Un formato no válido llega al controlador como
+ * MethodArgumentTypeMismatchException (400).
+ *
+ * Se registra en WebConfig.addFormatters().
+ */
+public class IdSetConverter implements GenericConverter {
+
+	@Override
+	public Set<ConvertiblePair> getConvertibleTypes() {
+		return Set.of(
+			new ConvertiblePair(String.class, IdSet.class),
+			new ConvertiblePair(String[].class, IdSet.class));
+	}
+
+	@Override
+	public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (source instanceof String[] values) {
+			return IdSet.parse(String.join(",", values));
+		}
+		return IdSet.parse((String) source);
+	}
+}
@@ -0,0 +1,136 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuración del almacén de sesiones HTTP en la base de datos (Spring
+ * Session JDBC).
+ *
+ * Con las sesiones en memoria cada instancia de la aplicación tiene las
+ * suyas: con varias instancias detrás de un balanceador, un usuario que
+ * cambia de instancia pierde la sesión (salvo "sticky sessions"). Guardando
+ * las sesiones en las tablas SPRING_SESSION y SPRING_SESSION_ATTRIBUTES de
+ * la misma base de datos, cualquier instancia puede atender cualquier
+ * petición.
+ *
+ * Se activa con htmlapp.sessions.store=jdbc (por defecto: memory). La
+ * autoconfiguración de Spring Boot para Spring Session está desactivada en
+ * application.yml para que el almacén en memoria siga siendo el de por
+ * defecto aunque la librería esté en el classpath.
+ *
+ * ----------------------------------------------------------------------------
+ * ESCRITURAS MÍNIMAS
+ * ----------------------------------------------------------------------------
+ * - SaveMode.ON_SET_ATTRIBUTE: solo se escriben los atributos que se han
+ *   cambiado con setAttribute/removeAttribute en la petición, no la sesión
+ *   entera. Una petición que solo lee la sesión actualiza únicamente
+ *   LAST_ACCESS_TIME / EXPIRY_TIME.
+ * - FlushMode.ON_SAVE: los cambios se escriben una vez, al terminar la
+ *   petición, aunque se hagan varios setAttribute.
+ * - Los atributos se guardan con CompactSessionSerializer (bytes mínimos
+ *   por fila).
+ *
+ * ----------------------------------------------------------------------------
+ * LIMPIEZA
+ * ----------------------------------------------------------------------------
+ * La limpieza de Spring Session (un único DELETE de todas las sesiones
+ * caducadas) está desactivada: con muchas sesiones caducadas a la vez ese
+ * DELETE bloquea muchas filas durante mucho tiempo. JdbcSessionMaintenance
+ * las borra por lotes.
+ *
+ * Propiedades (application.yml):
+ *   htmlapp.sessions.jdbc.cleanup-interval   → cada cuánto se limpia
+ *   htmlapp.sessions.jdbc.cleanup-batch-size → sesiones borradas por lote
+ *   htmlapp.sessions.jdbc.initialize-schema  → crear las tablas al arrancar
+ *   htmlapp.sessions.jdbc.platform           → script de creación a usar
+ *                                              (postgresql, h2...)
+ *   server.servlet.session.timeout           → caducidad por inactividad
+ *
+ * El esquema para PostgreSQL está también en docs/db/spring_session.sql.
+ */
+@Configuration
+@ConditionalOnProperty(name = "htmlapp.sessions.store", havingValue = "jdbc")
+@EnableJdbcHttpSession(
+	cleanupCron = Scheduled.CRON_DISABLED,
+	flushMode = FlushMode.ON_SAVE,
+	saveMode = SaveMode.ON_SET_ATTRIBUTE
+)
+public class JdbcSessionConfig {
+
+	@Bean
+	public SessionRepositoryCustomizer<JdbcIndexedSessionRepository> sessionTimeoutCustomizer(
+		@Value("${server.servlet.session.timeout:30m}") Duration timeout
+	) {
+		return repository -> repository.setDefaultMaxInactiveInterval(timeout);
+	}
+
+	/*
+	 * Spring Session busca un ConversionService con este nombre para
+	 * convertir los atributos a bytes y viceversa.
+	 */
+	@Bean
+	public ConversionService springSessionConversionService(ResourceLoader resourceLoader) {
+		CompactSessionSerializer serializer =
+			new CompactSessionSerializer(resourceLoader.getClassLoader());
+
+		GenericConversionService conversionService = new GenericConversionService();
+		conversionService.addConverter(Object.class, byte[].class, serializer::serialize);
+		conversionService.addConverter(byte[].class, Object.class, serializer::deserialize);
+		return conversionService;
+	}
+
+	/*
+	 * Los scripts de Spring Session no usan IF NOT EXISTS: si las tablas ya
+	 * existen, los errores se ignoran.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "htmlapp.sessions.jdbc.initialize-schema", havingValue = "true")
+	public DataSourceInitializer springSessionSchemaInitializer(
+		DataSource dataSource,
+		ResourceLoader resourceLoader,
+		@Value("${htmlapp.sessions.jdbc.platform:postgresql}") String platform
+	) {
+		ResourceDatabasePopulator populator = new ResourceDatabasePopulator(resourceLoader.getResource(
+			"classpath:org/springframework/session/jdbc/schema-" + platform + ".sql"));
+		populator.setContinueOnError(true);
+
+		DataSourceInitializer initializer = new DataSourceInitializer();
+		initializer.setDataSource(dataSource);
+		initializer.setDatabasePopulator(populator);
+		return initializer;
+	}
+
+	@Bean(destroyMethod = "close")
+	public JdbcSessionMaintenance jdbcSessionMaintenance(
+		DataSource dataSource,
+		@Value("${htmlapp.sessions.jdbc.cleanup-interval:1m}") Duration cleanupInterval,
+		@Value("${htmlapp.sessions.jdbc.cleanup-batch-size:1000}") int cleanupBatchSize,
+		MeterRegistry meterRegistry
+	) {
+		return new JdbcSessionMaintenance(
+			new JdbcTemplate(dataSource), cleanupInterval, cleanupBatchSize, meterRegistry);
+	}
+}
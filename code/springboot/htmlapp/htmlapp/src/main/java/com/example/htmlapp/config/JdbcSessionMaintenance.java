@@ -0,0 +1,152 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limpieza y estadísticas del almacén de sesiones JDBC.
+ *
+ * ----------------------------------------------------------------------------
+ * LIMPIEZA POR LOTES
+ * ----------------------------------------------------------------------------
+ * Cada htmlapp.sessions.jdbc.cleanup-interval se borran las sesiones
+ * caducadas en lotes de htmlapp.sessions.jdbc.cleanup-batch-size:
+ *
+ *   DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (
+ *     SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? LIMIT ?)
+ *
+ * Cada DELETE es una transacción propia (autocommit), así que los bloqueos
+ * duran lo que un lote y no lo que toda la limpieza. Se repite hasta que un
+ * lote borra menos filas que el tamaño del lote. Los atributos se borran
+ * en cascada (ON DELETE CASCADE de SPRING_SESSION_ATTRIBUTES).
+ *
+ * Con varias instancias todas ejecutan la limpieza; no es un problema: los
+ * lotes son pequeños y una sesión ya borrada no se vuelve a borrar.
+ *
+ * Métrica: sessions.jdbc.cleaned → sesiones caducadas borradas
+ *
+ * ----------------------------------------------------------------------------
+ * ESTADÍSTICAS
+ * ----------------------------------------------------------------------------
+ * stats() consulta las tablas: sesiones guardadas y bytes de sus atributos.
+ * Es la vista de TODAS las instancias, no solo de esta.
+ */
+@Slf4j
+public final class JdbcSessionMaintenance implements SessionStatsSource, AutoCloseable {
+
+	private static final String DELETE_EXPIRED = """
+		DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (
+			SELECT PRIMARY_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? LIMIT ?)
+		""";
+
+	private static final String SELECT_STATS = """
+		SELECT COUNT(*), COALESCE(SUM(bytes), 0), COALESCE(MAX(bytes), 0)
+		FROM (
+			SELECT s.PRIMARY_ID, COALESCE(SUM(OCTET_LENGTH(a.ATTRIBUTE_BYTES)), 0) AS bytes
+			FROM SPRING_SESSION s
+			LEFT JOIN SPRING_SESSION_ATTRIBUTES a ON a.SESSION_PRIMARY_ID = s.PRIMARY_ID
+			GROUP BY s.PRIMARY_ID
+		) t
+		""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int batchSize;
+	private final Counter cleanedCounter;
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * @param jdbcTemplate  Acceso a la base de datos de las sesiones.
+	 * @param interval      Tiempo entre limpiezas.
+	 * @param batchSize     Sesiones borradas por lote.
+	 * @param meterRegistry Registro de métricas.
+	 */
+	public JdbcSessionMaintenance(
+		JdbcTemplate jdbcTemplate,
+		Duration interval,
+		int batchSize,
+		MeterRegistry meterRegistry
+	) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.batchSize = Math.max(1, batchSize);
+		this.cleanedCounter = Counter.builder("sessions.jdbc.cleaned")
+			.description("Sesiones caducadas borradas del almacén JDBC")
+			.register(meterRegistry);
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "session-cleanup");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = interval.toMillis();
+		scheduler.scheduleWithFixedDelay(this::cleanUpSafely, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borra las sesiones caducadas, lote a lote.
+	 *
+	 * @return Número de sesiones borradas.
+	 */
+	public int cleanUpExpiredSessions() {
+		long now = System.currentTimeMillis();
+		int total = 0;
+		int deleted;
+
+		do {
+			deleted = jdbcTemplate.update(DELETE_EXPIRED, now, batchSize);
+			total += deleted;
+			cleanedCounter.increment(deleted);
+		} while (deleted == batchSize);
+
+		if (total > 0) {
+			log.info("Borradas {} sesiones caducadas", total);
+		}
+		return total;
+	}
+
+	@Override
+	public SessionStats stats() {
+		return jdbcTemplate.queryForObject(SELECT_STATS, (rs, row) -> {
+			int active = rs.getInt(1);
+			long total = rs.getLong(2);
+			return new SessionStats(
+				active,
+				0,
+				total,
+				active > 0 ? total / active : 0,
+				rs.getLong(3),
+				-1,
+				(long) cleanedCounter.count(),
+				-1,
+				-1
+			);
+		});
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	/* una excepción no capturada cancelaría las siguientes ejecuciones */
+	private void cleanUpSafely() {
+		try {
+			cleanUpExpiredSessions();
+		} catch (RuntimeException ex) {
+			log.warn("Error al borrar las sesiones caducadas", ex);
+		}
+	}
+}
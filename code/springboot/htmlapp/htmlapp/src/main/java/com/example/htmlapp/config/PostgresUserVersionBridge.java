@@ -0,0 +1,224 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.htmlapp.model.logic.events.UserVersionsChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reenvía los cambios de versión de usuarios entre instancias con
+ * LISTEN/NOTIFY de PostgreSQL.
+ *
+ * UserVersionRegistry solo se entera de los cambios hechos en su propia
+ * instancia. Con varias instancias (p. ej. sesiones compartidas en la base
+ * de datos, htmlapp.sessions.store=jdbc), un administrador que quita el rol
+ * a un usuario desde la instancia A no invalidaría la sesión que ese
+ * usuario usa en la instancia B. Con este componente:
+ *
+ *   A: UserVersionsChangedEvent → SELECT pg_notify(canal, "A|12:7,15:-1")
+ *   B: LISTEN canal → UserVersionsChangedEvent(remote = true)
+ *
+ * Y en B los oyentes de siempre (UserVersionRegistry, UserSnapshotCache)
+ * hacen lo mismo que con un cambio local.
+ *
+ * - El aviso se envía en un hilo propio, después del commit: la petición
+ *   que hizo el cambio no espera a la base de datos.
+ * - La escucha usa una conexión JDBC propia (no del pool): está abierta
+ *   todo el tiempo. Si se cae, se reintenta cada htmlapp.user-versions.retry.
+ * - Los avisos llevan el identificador de la instancia que los envía para
+ *   ignorar los propios.
+ * - Un aviso de PostgreSQL admite unos 8000 bytes: los cambios masivos se
+ *   reparten en varios.
+ *
+ * Los cambios hechos mientras la conexión de escucha está caída no llegan a
+ * esta instancia: sus sesiones no se revalidan hasta el siguiente cambio de
+ * ese usuario (queda un aviso en el log).
+ *
+ * Se activa con htmlapp.user-versions.notify=postgres.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "htmlapp.user-versions.notify", havingValue = "postgres")
+public class PostgresUserVersionBridge {
+
+	private static final int MAX_PAYLOAD = 7900;
+	private static final int POLL_MILLIS = 1000;
+
+	private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+	private final DataSourceProperties dataSourceProperties;
+	private final JdbcTemplate jdbcTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final String channel;
+	private final Duration retry;
+
+	private final ExecutorService sender = Executors.newSingleThreadExecutor(
+		Thread.ofPlatform().name("user-versions-notify").daemon(true).factory());
+
+	private volatile boolean running = true;
+	private volatile Thread listener;
+
+	public PostgresUserVersionBridge(
+		DataSourceProperties dataSourceProperties,
+		JdbcTemplate jdbcTemplate,
+		ApplicationEventPublisher eventPublisher,
+		@Value("${htmlapp.user-versions.channel:htmlapp_user_versions}") String channel,
+		@Value("${htmlapp.user-versions.retry:5s}") Duration retry
+	) {
+		if (!channel.matches("[a-z_][a-z0-9_]*")) {
+			throw new IllegalArgumentException("Nombre de canal no válido: " + channel);
+		}
+		this.dataSourceProperties = dataSourceProperties;
+		this.jdbcTemplate = jdbcTemplate;
+		this.eventPublisher = eventPublisher;
+		this.channel = channel;
+		this.retry = retry;
+	}
+
+	// -------------------------------------------------------------------------
+	// ENVÍO
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Envía a las demás instancias los cambios hechos en esta.
+	 */
+	@EventListener
+	public void onVersionsChanged(UserVersionsChangedEvent event) {
+		if (event.remote() || event.versions().isEmpty()) {
+			return;
+		}
+
+		List<String> payloads = encode(event.versions());
+		sender.execute(() -> {
+			for (String payload : payloads) {
+				try {
+					jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+				} catch (RuntimeException ex) {
+					log.warn("No se pudo enviar el aviso de cambio de usuarios", ex);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Codifica las versiones en uno o varios avisos "instancia|id:versión,...".
+	 */
+	private List<String> encode(Map<Integer, Long> versions) {
+		List<String> payloads = new ArrayList<>();
+		StringBuilder sb = new StringBuilder(instanceId).append('|');
+		int header = sb.length();
+
+		for (Map.Entry<Integer, Long> entry : versions.entrySet()) {
+			String item = entry.getKey() + ":" + entry.getValue();
+			if (sb.length() + item.length() + 1 > MAX_PAYLOAD) {
+				payloads.add(sb.toString());
+				sb.setLength(header);
+			}
+			if (sb.length() > header) {
+				sb.append(',');
+			}
+			sb.append(item);
+		}
+		payloads.add(sb.toString());
+		return payloads;
+	}
+
+	// -------------------------------------------------------------------------
+	// ESCUCHA
+	// -------------------------------------------------------------------------
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void startListening() {
+		listener = Thread.ofPlatform().name("user-versions-listen").daemon(true).start(this::listen);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		sender.shutdown();
+		Thread thread = listener;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	private void listen() {
+		while (running) {
+			try (Connection connection = DriverManager.getConnection(
+					dataSourceProperties.determineUrl(),
+					dataSourceProperties.determineUsername(),
+					dataSourceProperties.determinePassword())) {
+
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + channel);
+				}
+				log.info("Escuchando cambios de usuarios de otras instancias (canal {})", channel);
+
+				PGConnection pg = connection.unwrap(PGConnection.class);
+				while (running) {
+					PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+					if (notifications != null) {
+						for (PGNotification notification : notifications) {
+							receive(notification.getParameter());
+						}
+					}
+				}
+			} catch (SQLException | RuntimeException ex) {
+				if (!running) {
+					return;
+				}
+				log.warn("Conexión de escucha perdida; los avisos hasta reconectar se pierden", ex);
+				try {
+					Thread.sleep(retry);
+				} catch (InterruptedException ie) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decodifica un aviso y lo publica como cambio remoto.
+	 */
+	private void receive(String payload) {
+		int bar = payload.indexOf('|');
+		if (bar < 0 || payload.substring(0, bar).equals(instanceId) || bar == payload.length() - 1) {
+			return;
+		}
+
+		Map<Integer, Long> versions = new HashMap<>();
+		for (String item : payload.substring(bar + 1).split(",")) {
+			int colon = item.indexOf(':');
+			versions.put(
+				Integer.parseInt(item, 0, colon, 10),
+				Long.parseLong(item, colon + 1, item.length(), 10));
+		}
+		eventPublisher.publishEvent(new UserVersionsChangedEvent(versions, true));
+	}
+}
@@ -0,0 +1,53 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuración del almacén de sesiones HTTP en memoria.
+ *
+ * Sustituye el gestor de sesiones por defecto del Tomcat embebido por
+ * BoundedSessionManager, que limita el número de sesiones activas y estima
+ * su tamaño. El gestor también se publica como bean para que la página de
+ * administración (/admin/sessions) pueda leer sus estadísticas.
+ *
+ * Es el almacén por defecto (htmlapp.sessions.store=memory). Con
+ * htmlapp.sessions.store=jdbc se usa JdbcSessionConfig en su lugar.
+ *
+ * Propiedades (application.yml):
+ *   htmlapp.sessions.max-active     → máximo de sesiones activas (0 = sin límite)
+ *   htmlapp.sessions.evict-fraction → fracción del máximo expulsada por lote
+ *   server.servlet.session.timeout  → caducidad por inactividad (de Spring Boot)
+ */
+@Configuration
+@ConditionalOnProperty(name = "htmlapp.sessions.store", havingValue = "memory", matchIfMissing = true)
+public class SessionManagerConfig {
+
+	/*
+	 * destroyMethod = "": el ciclo de vida del gestor (start/stop) lo lleva
+	 * Tomcat, no Spring.
+	 */
+	@Bean(destroyMethod = "")
+	public BoundedSessionManager boundedSessionManager(
+		@Value("${htmlapp.sessions.max-active:100000}") int maxActive,
+		@Value("${htmlapp.sessions.evict-fraction:0.05}") double evictFraction,
+		MeterRegistry meterRegistry
+	) {
+		return new BoundedSessionManager(maxActive, evictFraction, meterRegistry);
+	}
+
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> boundedSessionManagerCustomizer(
+		BoundedSessionManager manager
+	) {
+		return factory -> factory.addContextCustomizers(context -> context.setManager(manager));
+	}
+}
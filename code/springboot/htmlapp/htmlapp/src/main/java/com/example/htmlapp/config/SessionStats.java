@@ -0,0 +1,37 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+/**
+ * Estadísticas de las sesiones HTTP en un instante dado.
+ *
+ * Los contadores que el almacén no registra valen -1 (la página
+ * /admin/sessions no los muestra).
+ *
+ * @param active            Sesiones activas ahora.
+ * @param maxActive         Máximo configurado (0 = sin límite).
+ * @param estimatedBytes    Tamaño estimado de todas las sesiones.
+ * @param averageBytes      Tamaño estimado medio por sesión.
+ * @param largestBytes      Tamaño estimado de la sesión más grande.
+ * @param created           Sesiones creadas desde el arranque.
+ * @param expired           Sesiones caducadas (por inactividad o expulsión).
+ * @param evicted           Sesiones expulsadas por falta de cupo.
+ * @param evictedLastMinute Sesiones expulsadas en el último minuto.
+ */
+public record SessionStats(
+	int active,
+	int maxActive,
+	long estimatedBytes,
+	long averageBytes,
+	long largestBytes,
+	long created,
+	long expired,
+	long evicted,
+	long evictedLastMinute
+) {
+
+	/** Ocupación del cupo en porcentaje (0 si no hay límite). */
+	public double usagePercent() {
+		return maxActive > 0 ? 100.0 * active / maxActive : 0;
+	}
+}
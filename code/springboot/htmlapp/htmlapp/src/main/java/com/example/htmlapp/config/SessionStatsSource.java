@@ -0,0 +1,18 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+/**
+ * Origen de las estadísticas de sesiones que muestra /admin/sessions.
+ *
+ * Lo implementa el almacén de sesiones activo:
+ *   - memoria → BoundedSessionManager
+ *   - jdbc    → JdbcSessionMaintenance
+ */
+public interface SessionStatsSource {
+
+	/**
+	 * Foto de las estadísticas actuales.
+	 */
+	SessionStats stats();
+}
@@ -0,0 +1,57 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.htmlapp.model.logic.AuthService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Configuración de Spring MVC.
+ *
+ * Registra un interceptor que, al empezar cada petición, llama a
+ * AuthService.getUser(). Si el usuario de la sesión ha quedado anticuado
+ * (UserVersionRegistry) se relee antes de que lo usen los controladores o
+ * las plantillas, que leen `${session.user}` directamente. Para el resto de
+ * peticiones el coste es una búsqueda en un mapa; las anónimas ni eso (no
+ * tienen sesión).
+ *
+ * Los recursos estáticos quedan fuera: no usan el usuario.
+ *
+ * También registra IdSetConverter, para recibir los IDs de las acciones
+ * masivas directamente como IdSet.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+	private final AuthService authService;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(
+				HttpServletRequest request,
+				HttpServletResponse response,
+				Object handler
+			) {
+				authService.getUser();
+				return true;
+			}
+		}).excludePathPatterns("/css/**", "/downloads/**", "/favicon.ico");
+	}
+
+	@Override
+	public void addFormatters(FormatterRegistry registry) {
+		registry.addConverter(new IdSetConverter());
+	}
+}
@@ -0,0 +1,40 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.controller;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.example.htmlapp.config.SessionStatsSource;
+import com.example.htmlapp.model.logic.PermissionsService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controlador de las páginas de administración técnica.
+ *
+ * - GET /admin/sessions → estadísticas del almacén de sesiones HTTP
+ *
+ * Todas las páginas requieren un usuario administrador.
+ */
+@Controller
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+	private final PermissionsService permissionsService;
+	private final SessionStatsSource sessionStats;
+
+	/**
+	 * Muestra las sesiones activas, su tamaño estimado y las expulsiones.
+	 */
+	@GetMapping("/sessions")
+	public String showSessionStats(Model model) {
+		permissionsService.checkAdminPermission();
+
+		model.addAttribute("stats", sessionStats.stats());
+		return "html/admin/sessions";
+	}
+}
@@ -2,6 +2,11 @@
 
 package com.example.htmlapp.controller;
 
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,9 +17,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import com.example.htmlapp.model.db.User;
 import com.example.htmlapp.model.logic.AuthService;
+import com.example.htmlapp.model.logic.LoginThrottle;
 import com.example.htmlapp.model.logic.UserService;
 import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
+import com.example.htmlapp.model.logic.exceptions.ServiceOverloadedException;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -42,6 +51,7 @@ public class AuthController {
 
 	private final AuthService authService;
 	private final UserService userService;
+	private final LoginThrottle loginThrottle;
 
 	// -------------------------------------------------------------------------
 	// LOGIN
@@ -63,8 +73,14 @@ public class AuthController {
 	/**
 	 * Procesa el formulario de inicio de sesión.
 	 *
+	 * Antes de tocar la base de datos se consulta LoginThrottle: si el email
+	 * o la IP acumulan demasiados fallos recientes, se responde 429 con
+	 * Retry-After y se vuelve a mostrar el formulario.
+	 *
 	 * @param email    Correo electrónico del usuario.
 	 * @param password Contraseña en texto plano.
+	 * @param request  Petición HTTP (para la IP del cliente).
+	 * @param response Respuesta HTTP (para el código 429).
 	 * @param model    Modelo para pasar mensajes de error a la vista.
 	 * @return Redirección o plantilla con error.
 	 */
@@ -72,15 +88,33 @@ public class AuthController {
 	public String processLogin(
 		@RequestParam String email,
 		@RequestParam String password,
+		HttpServletRequest request,
+		HttpServletResponse response,
 		Model model
 	) {
+		String ip = request.getRemoteAddr();
+
+		Optional<Duration> blocked = loginThrottle.blockedFor(email, ip);
+		if (blocked.isPresent()) {
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER,
+				String.valueOf(Math.max(1, blocked.get().plusMillis(999).toSeconds())));
+			model.addAttribute("errorMessage",
+				"Demasiados intentos fallidos. Inténtelo de nuevo más tarde.");
+			return "html/auth/login";
+		}
+
 		try {
 			boolean success = authService.login(email, password);
 			if (success) {
+				loginThrottle.onSuccess(email);
 				return "redirect:/main";
 			}
+			loginThrottle.onFailure(email, ip);
 			model.addAttribute("errorMessage", "Correo o contraseña incorrectos.");
 			return "html/auth/login";
+		} catch (ServiceOverloadedException ex) {
+			throw ex; // 503 + Retry-After (ErrorControllerAdvice)
 		} catch (Exception ex) {
 			throw new OperationFailedException("Error al iniciar sesión.", 500, ex);
 		}
@@ -200,9 +234,18 @@ El AuthService centraliza toda la lógica de sesión, incluyendo:
 -------------------------
  - 400 → Datos inválidos o contraseñas no coincidentes.
  - 403 → Falta de permisos para registrar.
+ - 429 → Demasiados logins fallidos desde la IP o contra el email.
  - 500 → Fallos inesperados de servidor.
+ - 503 → Pool de hashing saturado (Retry-After).
+
+4. LÍMITE DE INTENTOS (LoginThrottle)
+--------------------------------------
+La comprobación se hace en el controlador, antes de llamar a AuthService:
+un intento bloqueado no cuesta ni una consulta ni un hash. La IP es
+request.getRemoteAddr(); detrás de un proxy hay que configurar
+server.forward-headers-strategy para que sea la del cliente real.
 
-4. OBJETIVO PEDAGÓGICO
+5. OBJETIVO PEDAGÓGICO
 ------------------------
 Este controlador enseña cómo:
  - Separar autenticación y registro en flujos independientes.
@@ -2,15 +2,19 @@
 
 package com.example.htmlapp.controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
 import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
+import com.example.htmlapp.model.logic.exceptions.ServiceOverloadedException;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -68,6 +72,44 @@ public class ErrorControllerAdvice {
 		return "error/400";
 	}
 
+	// -------------------------------------------------------------------------
+	// 400 - Parámetro con formato no válido (enum, fecha, IdSet...)
+	// -------------------------------------------------------------------------
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public String handleTypeMismatch(MethodArgumentTypeMismatchException ex, Model model) {
+		log.warn("Parámetro no válido ({}): {}", ex.getName(), ex.getMessage());
+		log.debug("StackTrace:", ex);
+
+		// Si la conversión falló con un mensaje propio (p. ej. IdSet.parse), se muestra
+		Throwable cause = ex.getMostSpecificCause();
+		model.addAttribute("errorCode", 400);
+		model.addAttribute("errorMessage", cause instanceof IllegalArgumentException
+			? cause.getMessage()
+			: "El parámetro '" + ex.getName() + "' no tiene un valor válido.");
+		return "error/400";
+	}
+
+	// -------------------------------------------------------------------------
+	// 503 - Servidor saturado (reintentar más tarde)
+	// -------------------------------------------------------------------------
+	@ExceptionHandler(ServiceOverloadedException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public String handleOverloaded(
+		ServiceOverloadedException ex,
+		HttpServletResponse response,
+		Model model
+	) {
+		log.warn("Petición rechazada por saturación: {}", ex.getMessage());
+
+		response.setHeader(HttpHeaders.RETRY_AFTER,
+			String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())));
+
+		model.addAttribute("errorCode", 503);
+		model.addAttribute("errorMessage", ex.getMessage());
+		return "error/operation-error";
+	}
+
 	// -------------------------------------------------------------------------
 	// 500 - Error en operación de negocio
 	// -------------------------------------------------------------------------
@@ -114,6 +156,8 @@ public class ErrorControllerAdvice {
  * 2. Excepciones esperadas:
  *    - SecurityException          → acceso denegado (403)
  *    - IllegalArgumentException   → datos incorrectos (400)
+ *    - MethodArgumentTypeMismatchException → parámetro mal formado (400)
+ *    - ServiceOverloadedException → servidor saturado (503 + Retry-After)
  *    - OperationFailedException   → fallo de negocio (400–500)
  *    - NoHandlerFoundException    → recurso inexistente (404)
  *    - Exception                  → genérica (500)
@@ -92,8 +92,8 @@ public class HomeController {
 			.orElseThrow(() -> new SecurityException("Debe iniciar sesión para acceder."));
 
 		// Información contextual para la vista
-		model.addAttribute("loggedUserName", user.getFullName());
-		model.addAttribute("loggedUserAdmin", user.isAdmin());
+		model.addAttribute("loggedUserName", user.fullName());
+		model.addAttribute("loggedUserAdmin", user.admin());
 		model.addAttribute("serverNow", LocalDateTime.now());
 
 		// Devuelve la plantilla principal (parallax + contenido central)
@@ -12,6 +12,7 @@ import com.example.htmlapp.model.logic.AuthService;
 import com.example.htmlapp.model.logic.PermissionsService;
 import com.example.htmlapp.model.logic.UserService;
 import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
+import com.example.htmlapp.model.logic.exceptions.ServiceOverloadedException;
 
 import lombok.RequiredArgsConstructor;
 
@@ -82,7 +83,7 @@ public class UserController {
 			userService.updateUser(target);
 
 			authService.getUser().ifPresent(current -> {
-				if (current.getId().equals(id)) {
+				if (current.id() == id) {
 					authService.refreshUser();
 				}
 			});
@@ -109,8 +110,9 @@ public class UserController {
 		return "html/user/change-password";
 	}
 
+	// Sin @Transactional: los hashes (contraseña actual y nueva) no deben
+	// ocupar una conexión; changePassword() abre la suya solo para el UPDATE.
 	@PostMapping("/change-password/{id}")
-	@Transactional
 	public String processChangePassword(
 		@PathVariable Integer id,
 		@RequestParam String currentPassword,
@@ -125,10 +127,11 @@ public class UserController {
 		}
 
 		boolean isSelfChange = authService.getUser()
-			.map(u -> u.getId().equals(id))
+			.map(u -> u.id() == id)
 			.orElse(false);
 
-		if (isSelfChange && !authService.verifyPassword(id, currentPassword)) {
+		// Se verifica contra el usuario ya cargado (sin volver a buscarlo por ID).
+		if (isSelfChange && !authService.verifyPassword(target, currentPassword)) {
 			throw new OperationFailedException("La contraseña actual no es válida.", 403);
 		}
 
@@ -141,6 +144,8 @@ public class UserController {
 
 			return "html/user/change-password-success";
 
+		} catch (ServiceOverloadedException ex) {
+			throw ex; // 503 + Retry-After (ErrorControllerAdvice)
 		} catch (Exception ex) {
 			throw new OperationFailedException("Error al cambiar la contraseña.", 500, ex);
 		}
@@ -166,7 +171,7 @@ public class UserController {
 			userService.deleteUser(current.getId());
 
 			if (authService.getUser()
-					.map(u -> u.getId().equals(id))
+					.map(u -> u.id() == id)
 					.orElse(false)) {
 				authService.logout();
 				return "redirect:/?logout";
@@ -2,21 +2,42 @@
 
 package com.example.htmlapp.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-
-import com.example.htmlapp.model.db.User;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.htmlapp.model.db.UserListFilter;
+import com.example.htmlapp.model.db.UserListPage;
+import com.example.htmlapp.model.db.UserListRow;
 import com.example.htmlapp.model.enums.BulkActionType;
+import com.example.htmlapp.model.enums.ExportFormat;
 import com.example.htmlapp.model.enums.SortDirection;
 import com.example.htmlapp.model.enums.UserOrderField;
 import com.example.htmlapp.model.logic.AuthService;
+import com.example.htmlapp.model.logic.BulkJob;
+import com.example.htmlapp.model.logic.BulkJobService;
+import com.example.htmlapp.model.logic.BulkJobStatus;
+import com.example.htmlapp.model.logic.IdSet;
 import com.example.htmlapp.model.logic.PermissionsService;
+import com.example.htmlapp.model.logic.UserExportService;
 import com.example.htmlapp.model.logic.UserListService;
 import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
 
@@ -25,7 +46,7 @@ import lombok.RequiredArgsConstructor;
 /**
  * Controlador encargado de la administración y gestión de listas de usuarios.
  *
- * Permite listar, ordenar y realizar operaciones masivas (otorgar o revocar
+ * Permite listar, filtrar, ordenar y realizar operaciones masivas (otorgar o revocar
  * privilegios de administrador, o eliminar usuarios).
  *
  * ----------------------------------------------------------------------------
@@ -33,9 +54,15 @@ import lombok.RequiredArgsConstructor;
  * ----------------------------------------------------------------------------
  * Este controlador responde bajo el prefijo común /userlist:
  *
- * - GET  /userlist/list          → listado de usuarios
+ * - GET  /userlist/list          → listado de usuarios (paginado por cursor)
+ * - GET  /userlist/export        → descarga CSV / NDJSON en streaming
  * - POST /userlist/bulk-confirm  → pantalla de confirmación de acción masiva
- * - POST /userlist/bulk-success  → ejecución final de la acción
+ * - POST /userlist/bulk-success  → lanza la acción en segundo plano
+ * - POST /userlist/bulk-confirm-matching → confirmación de una acción sobre
+ *   todos los usuarios que cumplen el filtro
+ * - POST /userlist/bulk-matching → lanza esa acción en segundo plano
+ * - GET  /userlist/bulk-jobs/{id} → progreso y resultado de la acción
+ *   (+ /status en JSON y /events en SSE)
  *
  * ----------------------------------------------------------------------------
  * SOBRE LA SEPARACIÓN DE RESPONSABILIDADES
@@ -48,9 +75,17 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserListController {
 
+	/* el navegador reconecta solo si el flujo SSE se corta */
+	private static final long SSE_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+	/* usuarios de muestra en la confirmación de una acción por filtro */
+	private static final int SAMPLE_SIZE = 20;
+
 	private final UserListService userListService;
+	private final UserExportService userExportService;
 	private final AuthService authService;
 	private final PermissionsService permissionsService;
+	private final BulkJobService bulkJobService;
 
 	// -------------------------------------------------------------------------
 	// LISTADO DE USUARIOS
@@ -63,39 +98,141 @@ public class UserListController {
 	 * Si no se indican, se aplican los valores por defecto:
 	 * orden por fecha de creación descendente.
 	 *
+	 * El listado se pagina por cursor (keyset): los enlaces "Anterior" y
+	 * "Siguiente" llevan el token de la primera/última fila mostrada.
+	 *
+	 * Los filtros (search, admin, emailDomain, nameFragment, createdFrom,
+	 * createdTo) se reciben como parámetros GET y Spring los agrupa en
+	 * UserListFilter. `search` es la búsqueda libre por email o nombre.
+	 *
+	 * @param filter    Criterios de filtrado (todos opcionales).
 	 * @param orderBy   Campo por el que ordenar (EMAIL, FULL_NAME...).
 	 * @param direction Dirección del orden (ASC o DESC).
+	 * @param after     Cursor de la última fila de la página anterior.
+	 * @param before    Cursor de la primera fila de la página siguiente.
+	 * @param size      Tamaño de página (opcional).
 	 * @param model     Modelo de datos para la vista Thymeleaf.
 	 * @return Plantilla de listado (list.html).
 	 */
 	@GetMapping("/list")
 	public String listUsers(
+		@ModelAttribute("filter") UserListFilter filter,
 		@RequestParam(name = "orderBy", required = false) UserOrderField orderBy,
 		@RequestParam(name = "direction", required = false) SortDirection direction,
+		@RequestParam(name = "after", required = false) String after,
+		@RequestParam(name = "before", required = false) String before,
+		@RequestParam(name = "size", required = false) Integer size,
 		Model model
 	) {
 		// Validar sesión y permisos de administrador
 		permissionsService.checkAdminPermission();
 
-		try {
-			List<User> users = userListService.listAllUsers(
-				orderBy != null ? orderBy : UserOrderField.CREATION_DATETIME,
-				direction != null ? direction : SortDirection.DESC
-			);
+		UserOrderField effectiveOrderBy =
+			orderBy != null ? orderBy : UserOrderField.CREATION_DATETIME;
+		SortDirection effectiveDirection =
+			direction != null ? direction : SortDirection.DESC;
 
-			model.addAttribute("users", users);
-			model.addAttribute("orderBy",
-				orderBy != null ? orderBy : UserOrderField.CREATION_DATETIME);
-			model.addAttribute("direction",
-				direction != null ? direction : SortDirection.DESC);
+		try {
+			UserListPage page = userListService.listUsersPage(
+				filter, effectiveOrderBy, effectiveDirection, after, before, size);
+			int pageSize = userListService.resolvePageSize(size);
+
+			model.addAttribute("users", page.users());
+			model.addAttribute("orderBy", effectiveOrderBy);
+			model.addAttribute("direction", effectiveDirection);
+			model.addAttribute("size", pageSize);
+			model.addAttribute("pageUrl",
+				listUrl("/userlist/list", filter, effectiveOrderBy, effectiveDirection)
+					.queryParam("size", pageSize)
+					.encode().build().toUriString());
+			model.addAttribute("exportUrl",
+				listUrl("/userlist/export", filter, effectiveOrderBy, effectiveDirection)
+					.encode().build().toUriString());
+			model.addAttribute("nextCursor", page.nextCursor());
+			model.addAttribute("previousCursor", page.previousCursor());
+			model.addAttribute("firstPage", after == null && before == null);
 
 			return "html/userlist/list";
 
+		} catch (IllegalArgumentException ex) {
+			throw new OperationFailedException(ex.getMessage(), 400, ex);
 		} catch (Exception ex) {
 			throw new OperationFailedException("Error al cargar el listado de usuarios.", 500, ex);
 		}
 	}
 
+	/**
+	 * Construye una URL con los parámetros de filtro y orden del listado,
+	 * para que los enlaces de paginación y exportación los conserven.
+	 *
+	 * Solo se incluyen los parámetros con valor, para no ensuciar la URL.
+	 */
+	private UriComponentsBuilder listUrl(
+		String path,
+		UserListFilter filter,
+		UserOrderField orderBy,
+		SortDirection direction
+	) {
+		UriComponentsBuilder url = UriComponentsBuilder.fromPath(path)
+			.queryParam("orderBy", orderBy)
+			.queryParam("direction", direction);
+
+		if (filter.search() != null) url.queryParam("search", filter.search());
+		if (filter.admin() != null) url.queryParam("admin", filter.admin());
+		if (filter.emailDomain() != null) url.queryParam("emailDomain", filter.emailDomain());
+		if (filter.nameFragment() != null) url.queryParam("nameFragment", filter.nameFragment());
+		if (filter.createdFrom() != null) url.queryParam("createdFrom", filter.createdFrom());
+		if (filter.createdTo() != null) url.queryParam("createdTo", filter.createdTo());
+
+		return url;
+	}
+
+	// -------------------------------------------------------------------------
+	// EXPORTACIÓN (STREAMING)
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Descarga todos los usuarios que cumplen el filtro, en el orden elegido,
+	 * como CSV o NDJSON.
+	 *
+	 * La respuesta es un StreamingResponseBody: las filas se escriben según
+	 * se leen de la BD, así que la memoria usada no depende del número de
+	 * usuarios. Los permisos y el filtro se comprueban ANTES de empezar a
+	 * escribir (después ya se ha enviado el 200).
+	 *
+	 * @param filter    Criterios de filtrado (los mismos que el listado).
+	 * @param format    Formato (CSV por defecto).
+	 * @param orderBy   Campo de ordenación.
+	 * @param direction Dirección del orden.
+	 * @return Respuesta con el fichero en streaming.
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportUsers(
+		@ModelAttribute("filter") UserListFilter filter,
+		@RequestParam(name = "format", defaultValue = "CSV") ExportFormat format,
+		@RequestParam(name = "orderBy", required = false) UserOrderField orderBy,
+		@RequestParam(name = "direction", required = false) SortDirection direction
+	) {
+		permissionsService.checkAdminPermission();
+		userExportService.checkFilter(filter);
+
+		UserOrderField effectiveOrderBy =
+			orderBy != null ? orderBy : UserOrderField.CREATION_DATETIME;
+		SortDirection effectiveDirection =
+			direction != null ? direction : SortDirection.DESC;
+
+		StreamingResponseBody body = out -> userExportService.export(
+			filter, effectiveOrderBy, effectiveDirection, format, out);
+
+		return ResponseEntity.ok()
+			.contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+			.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+				.filename("users." + format.getExtension())
+				.build()
+				.toString())
+			.body(body);
+	}
+
 	// -------------------------------------------------------------------------
 	// CONFIRMACIÓN DE ACCIÓN MASIVA
 	// -------------------------------------------------------------------------
@@ -107,34 +244,33 @@ public class UserListController {
 	 * Excluye siempre al usuario logado de la lista de destino.
 	 *
 	 * @param action Tipo de acción (GRANT, REVOKE, DELETE).
-	 * @param ids    Lista de IDs de usuarios seleccionados.
+	 * @param ids    IDs seleccionados (casillas del listado o formato
+	 *               "1-500,502-900"; ver IdSet).
 	 * @param model  Modelo para la vista de confirmación.
 	 * @return Plantilla de confirmación (bulk-confirm.html).
 	 */
 	@PostMapping("/bulk-confirm")
 	public String confirmBulkAction(
 		@RequestParam("action") BulkActionType action,
-		@RequestParam("ids") List<Integer> ids,
+		@RequestParam("ids") IdSet ids,
 		Model model
 	) {
 		permissionsService.checkAdminPermission();
 
-		if (ids == null || ids.isEmpty()) {
+		if (ids.isEmpty()) {
 			throw new OperationFailedException("Debe seleccionar al menos un usuario.", 400);
 		}
 
 		Integer currentUserId = authService.getUserId().orElse(null);
-		List<User> users = userListService.listUsersByIds(ids).stream()
-			.filter(u -> !u.getId().equals(currentUserId)) // excluye al logado
-			.toList();
-
-		if (users.isEmpty()) {
+		IdSet validIds = ids.without(currentUserId); // excluye al logado
+		if (validIds.isEmpty()) {
 			throw new OperationFailedException("No hay usuarios válidos para procesar.", 400);
 		}
 
-		String idsString = String.join(",", users.stream()
-			.map(u -> String.valueOf(u.getId()))
-			.toList());
+		List<UserListRow> users = userListService.listUsersByIds(validIds);
+
+		// Solo los que existen, en formato de rangos ("1-500,502-900")
+		String idsString = IdSet.of(users.stream().map(UserListRow::id).toList()).encode();
 
 		model.addAttribute("action", action);
 		model.addAttribute("users", users);
@@ -144,59 +280,198 @@ public class UserListController {
 		return "html/userlist/bulk-confirm";
 	}
 
+	/**
+	 * Confirmación de una acción sobre TODOS los usuarios que cumplen el
+	 * filtro del listado (no solo los marcados en la página).
+	 *
+	 * No se cargan ni se envían IDs: se muestra el número de usuarios
+	 * afectados y una muestra, y el formulario reenvía el filtro.
+	 *
+	 * @param action Tipo de acción (GRANT, REVOKE, DELETE).
+	 * @param filter Criterios de filtrado del listado.
+	 * @param model  Modelo para la vista de confirmación.
+	 * @return Plantilla de confirmación (bulk-confirm.html).
+	 */
+	@PostMapping("/bulk-confirm-matching")
+	public String confirmBulkMatching(
+		@RequestParam("action") BulkActionType action,
+		@ModelAttribute("filter") UserListFilter filter,
+		Model model
+	) {
+		permissionsService.checkAdminPermission();
+
+		Integer currentUserId = authService.getUserId().orElse(null);
+		try {
+			long count = userListService.countMatching(filter, currentUserId);
+			if (count == 0) {
+				throw new OperationFailedException("Ningún usuario cumple el filtro.", 400);
+			}
+
+			model.addAttribute("action", action);
+			model.addAttribute("matching", true);
+			model.addAttribute("count", count);
+			model.addAttribute("users",
+				userListService.sampleMatching(filter, currentUserId, SAMPLE_SIZE));
+			return "html/userlist/bulk-confirm";
+
+		} catch (IllegalArgumentException ex) {
+			throw new OperationFailedException(ex.getMessage(), 400, ex);
+		}
+	}
+
 	// -------------------------------------------------------------------------
 	// EJECUCIÓN DE ACCIÓN MASIVA
 	// -------------------------------------------------------------------------
 
 	/**
-	 * Ejecuta la operación masiva (otorgar, revocar o borrar) y muestra resultado.
+	 * Lanza la operación masiva (otorgar, revocar o borrar) en segundo plano
+	 * y redirige a su página de progreso.
 	 *
 	 * Solo accesible para administradores.
 	 *
+	 * La operación la ejecuta BulkJobService por lotes; esta petición
+	 * termina al momento, sin esperar a que acabe.
+	 *
 	 * @param action Tipo de acción.
-	 * @param ids    Lista de IDs a modificar.
-	 * @param model  Modelo de la vista.
-	 * @return Plantilla de éxito (bulk-success.html).
+	 * @param ids    IDs a modificar (formato "1-500,502-900"; ver IdSet).
+	 * @return Redirección a /userlist/bulk-jobs/{id}.
 	 */
 	@PostMapping("/bulk-success")
 	public String processBulkAction(
 		@RequestParam("action") BulkActionType action,
-		@RequestParam("ids") List<Integer> ids,
-		Model model
+		@RequestParam("ids") IdSet ids
 	) {
 		permissionsService.checkAdminPermission();
 
-		if (ids == null || ids.isEmpty()) {
+		if (ids.isEmpty()) {
 			throw new OperationFailedException("Debe seleccionar al menos un usuario.", 400);
 		}
 
 		Integer currentUserId = authService.getUserId().orElse(null);
-		List<Integer> validIds = ids.stream()
-			.filter(id -> !id.equals(currentUserId)) // excluye el propio usuario
-			.toList();
-
+		IdSet validIds = ids.without(currentUserId); // excluye el propio usuario
 		if (validIds.isEmpty()) {
 			throw new OperationFailedException("No hay usuarios válidos para procesar.", 400);
 		}
 
-		try {
-			switch (action) {
-				case GRANT -> userListService.setAdminStatusBulk(validIds, true);
-				case REVOKE -> userListService.setAdminStatusBulk(validIds, false);
-				case DELETE -> userListService.deleteUsersBulk(validIds);
-				default -> throw new IllegalArgumentException("Acción no válida.");
-			}
+		BulkJob job = bulkJobService.submit(action, validIds, currentUserId);
+		return "redirect:/userlist/bulk-jobs/" + job.getId();
+	}
 
-			model.addAttribute("action", action);
-			model.addAttribute("count", validIds.size());
-			return "html/userlist/bulk-success";
+	/**
+	 * Lanza en segundo plano una acción sobre todos los usuarios que cumplen
+	 * el filtro (salvo el logado) y redirige a su página de progreso.
+	 *
+	 * Se recorren por lotes los IDs que cumplen el filtro
+	 * (UserListService.executeMatching()).
+	 *
+	 * @param action Tipo de acción.
+	 * @param filter Criterios de filtrado del listado.
+	 * @return Redirección a /userlist/bulk-jobs/{id}.
+	 */
+	@PostMapping("/bulk-matching")
+	public String processBulkMatching(
+		@RequestParam("action") BulkActionType action,
+		@ModelAttribute("filter") UserListFilter filter
+	) {
+		permissionsService.checkAdminPermission();
 
+		Integer currentUserId = authService.getUserId().orElse(null);
+		try {
+			BulkJob job = bulkJobService.submitMatching(action, filter, currentUserId);
+			return "redirect:/userlist/bulk-jobs/" + job.getId();
 		} catch (IllegalArgumentException ex) {
-			throw new OperationFailedException("Error al procesar la operación.", 400, ex);
-		} catch (Exception ex) {
-			throw new OperationFailedException("Error inesperado al ejecutar la operación.", 500, ex);
+			throw new OperationFailedException(ex.getMessage(), 400, ex);
 		}
 	}
+
+	// -------------------------------------------------------------------------
+	// PROGRESO DE ACCIÓN MASIVA
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Muestra el progreso de una operación masiva y, al terminar, su
+	 * resultado lote a lote.
+	 *
+	 * La página se actualiza sola con /events (SSE) o, si el navegador no
+	 * puede, consultando /status cada pocos segundos.
+	 *
+	 * @param id    Identificador del trabajo.
+	 * @param model Modelo de la vista.
+	 * @return Plantilla de progreso (bulk-job.html).
+	 */
+	@GetMapping("/bulk-jobs/{id}")
+	public String showBulkJob(@PathVariable("id") String id, Model model) {
+		permissionsService.checkAdminPermission();
+
+		BulkJob job = findJob(id);
+		BulkJobStatus status = job.status();
+
+		model.addAttribute("job", status);
+		model.addAttribute("action", status.action());
+		model.addAttribute("result", job.getResult());
+		return "html/userlist/bulk-job";
+	}
+
+	/**
+	 * Devuelve el progreso de una operación masiva en JSON (consulta periódica).
+	 *
+	 * @param id Identificador del trabajo.
+	 * @return Estado actual.
+	 */
+	@GetMapping(path = "/bulk-jobs/{id}/status", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public BulkJobStatus bulkJobStatus(@PathVariable("id") String id) {
+		permissionsService.checkAdminPermission();
+		return findJob(id).status();
+	}
+
+	/**
+	 * Envía el progreso de una operación masiva como eventos SSE
+	 * ("progress"): uno al conectar, uno tras cada lote y uno al terminar,
+	 * tras el cual se cierra el flujo.
+	 *
+	 * Los eventos los envía el hilo del trabajo; ningún hilo de Tomcat queda
+	 * esperando entre uno y otro.
+	 *
+	 * @param id Identificador del trabajo.
+	 * @return Emisor SSE.
+	 */
+	@GetMapping(path = "/bulk-jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter bulkJobEvents(@PathVariable("id") String id) {
+		permissionsService.checkAdminPermission();
+
+		BulkJob job = findJob(id);
+		SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+
+		Consumer<BulkJobStatus> listener = status -> {
+			try {
+				emitter.send(SseEmitter.event().name("progress").data(status));
+				if (status.finished()) {
+					emitter.complete();
+				}
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex); // BulkJob quita el oyente
+			}
+		};
+		emitter.onCompletion(() -> job.removeListener(listener));
+		emitter.onTimeout(() -> job.removeListener(listener));
+		emitter.onError(ex -> job.removeListener(listener));
+
+		job.addListener(listener);
+		listener.accept(job.status());
+		return emitter;
+	}
+
+	private BulkJob findJob(String id) {
+		return bulkJobService.find(id).orElseThrow(() -> bulkJobService.isLocal(id)
+			? new OperationFailedException("La operación masiva no existe o ha caducado.", 404)
+			// Lanzada en otra instancia (o antes de reiniciar esta): ver BulkJobService
+			: new OperationFailedException(
+				"La operación masiva no se ejecuta en este servidor: se lanzó en otra instancia "
+					+ "de la aplicación o antes de un reinicio. Su progreso solo puede consultarse "
+					+ "en la instancia que la ejecuta (con varias instancias, el balanceador debe "
+					+ "mantener cada sesión en la misma).", 409));
+	}
 }
 
 /*
@@ -218,20 +493,29 @@ NOTAS PEDAGÓGICAS
 Spring convierte automáticamente parámetros String en enumerados (UserOrderField,
 SortDirection, BulkActionType) siempre que los nombres coincidan.
 
-2. FLUJO DE ACCIONES MASIVAS
+2. EXPORTACIÓN EN STREAMING
+----------------------------
+/export devuelve un StreamingResponseBody: Spring libera el hilo de Tomcat
+y escribe el cuerpo desde un hilo de tareas asíncronas mientras
+UserExportService recorre las filas con un cursor de BD.
+
+3. FLUJO DE ACCIONES MASIVAS
 -----------------------------
 - /list muestra el listado principal.
 - /bulk-confirm confirma antes de ejecutar.
-- /bulk-success ejecuta y muestra resultado.
+- /bulk-success lanza la acción (BulkJobService) y redirige a
+  /bulk-jobs/{id}, que muestra el progreso en directo y el resultado.
+- /bulk-confirm-matching y /bulk-matching hacen lo mismo con "todos los que
+  cumplen el filtro": solo viaja el filtro, nunca la lista de IDs.
 
-3. EXCEPCIONES Y MANEJO GLOBAL
+4. EXCEPCIONES Y MANEJO GLOBAL
 -------------------------------
 Este controlador lanza `OperationFailedException` con códigos específicos:
  - 400 → errores de validación.
  - 403 → falta de permisos.
  - 500 → errores internos.
 
-4. OBJETIVO PEDAGÓGICO
+5. OBJETIVO PEDAGÓGICO
 ------------------------
 Ilustra cómo:
  - Delegar la seguridad al controlador y mantener los servicios puros.
@@ -13,6 +13,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -103,7 +104,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -120,6 +121,14 @@ public class User implements Serializable {
 	private String email;
 	// Email del usuario (único y obligatorio)
 
+	@Column(name = "email_domain", insertable = false, updatable = false,
+	        columnDefinition = "varchar(255) generated always as "
+	                         + "(lower(split_part(email, '@', 2))) stored")
+	private String emailDomain;
+	// Dominio del email en minúsculas. Columna GENERADA por PostgreSQL a partir
+	// de `email`, por eso no se inserta ni se actualiza desde Java. Permite
+	// filtrar por dominio con un índice normal (email_domain = ?).
+
 	@Column(name = "full_name", length = 255)
 	private String fullName;
 	// Nombre completo del usuario
@@ -128,9 +137,10 @@ public class User implements Serializable {
 	private String salt;
 	// Salt generada aleatoriamente para aumentar la seguridad del hash
 
-	@Column(name = "password_hash", nullable = false, length = 80)
+	@Column(name = "password_hash", nullable = false, length = 255)
 	private String passwordHash;
-	// Hash resultante de aplicar la función de hashing a (contraseña + salt)
+	// Hash autodescriptivo de la contraseña (algoritmo + parámetros + hash).
+	// Ver PasswordService para los formatos admitidos.
 
 	@Column(name = "is_admin", nullable = false, insertable = false,
 	        columnDefinition = "boolean default false")
@@ -144,6 +154,14 @@ public class User implements Serializable {
 	private LocalDateTime creationTimestamp;
 	// Fecha y hora de creación del usuario (puesta automáticamente por la BD)
 
+	@Version
+	@Column(name = "version", nullable = false,
+	        columnDefinition = "bigint default 0 not null")
+	private long version;
+	// Versión de la fila: Hibernate la incrementa en cada UPDATE y rechaza
+	// guardar una copia antigua (bloqueo optimista). El usuario de sesión
+	// (SessionUser) guarda la versión con la que se creó.
+
 	// ---------- MÉTODOS AUXILIARES ----------
 
 	/**
@@ -0,0 +1,85 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.htmlapp.model.enums.UserOrderField;
+
+/**
+ * Cursor de paginación por clave (keyset / seek) del listado de usuarios.
+ *
+ * Identifica la última (o primera) fila de una página mediante:
+ *  - `key` → valor de la columna de ordenación (email, nombre o fecha),
+ *            siempre en forma de texto.
+ *  - `id`  → id_user, usado como desempate para que el orden sea total.
+ *
+ * ----------------------------------------------------------------------------
+ * FORMATO EN LA URL
+ * ----------------------------------------------------------------------------
+ * El cursor viaja en los enlaces "Anterior" / "Siguiente" como un token
+ * opaco: Base64 URL-safe de "id|key". Como el id nunca contiene '|', basta
+ * con partir por la primera aparición del separador.
+ *
+ *   /userlist/list?orderBy=EMAIL&direction=ASC&after=MTIzfGFuYUBlamVtcGxvLmNvbQ
+ */
+public record UserListCursor(String key, int id) {
+
+	private static final char SEPARATOR = '|';
+
+	/**
+	 * Construye el cursor que apunta a un usuario según el campo de orden.
+	 *
+	 * El nombre completo puede ser nulo; se trata como cadena vacía, igual que
+	 * hace la consulta (COALESCE) para que el orden sea total y estable.
+	 *
+	 * @param user    Fila de la que se toma la clave.
+	 * @param orderBy Campo de ordenación del listado.
+	 * @return Cursor posicionado en esa fila.
+	 */
+	public static UserListCursor of(UserListRow user, UserOrderField orderBy) {
+		String key = switch (orderBy) {
+			case EMAIL -> user.email();
+			case FULL_NAME -> user.fullName() != null ? user.fullName() : "";
+			case CREATION_DATETIME -> user.creationTimestamp().toString();
+		};
+		return new UserListCursor(key, user.id());
+	}
+
+	/**
+	 * Codifica el cursor como token apto para parámetros de URL.
+	 *
+	 * @return Token Base64 URL-safe sin relleno.
+	 */
+	public String encode() {
+		String raw = id + String.valueOf(SEPARATOR) + key;
+		return Base64.getUrlEncoder().withoutPadding()
+			.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodifica un token generado con encode().
+	 *
+	 * @param token Token recibido por parámetro (puede ser null o vacío).
+	 * @return Cursor decodificado, o null si no se indicó token.
+	 * @throws IllegalArgumentException si el token está mal formado.
+	 */
+	public static UserListCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+
+		try {
+			String raw = new String(
+				Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int sep = raw.indexOf(SEPARATOR);
+			return new UserListCursor(
+				raw.substring(sep + 1),
+				Integer.parseInt(raw.substring(0, sep))
+			);
+		} catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Cursor de paginación no válido.", ex);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.db;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Criterios de filtrado del listado de usuarios.
+ *
+ * Todos los campos son opcionales: un valor null significa "no filtrar por
+ * este criterio". Spring MVC construye el record directamente a partir de los
+ * parámetros de la petición (?admin=true&emailDomain=empresa.com...).
+ *
+ * @param search       Texto libre buscado en email O nombre completo.
+ * @param admin        true → solo administradores, false → solo no
+ *                     administradores, null → todos.
+ * @param emailDomain  Dominio del email, sin '@' (ej. "empresa.com").
+ * @param nameFragment Fragmento contenido en el nombre completo.
+ * @param createdFrom  Fecha de alta mínima (incluida).
+ * @param createdTo    Fecha de alta máxima (incluida).
+ */
+public record UserListFilter(
+	String search,
+	Boolean admin,
+	String emailDomain,
+	String nameFragment,
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+	@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo
+) {
+
+	/** Filtro vacío (sin ningún criterio). */
+	public static final UserListFilter NONE =
+		new UserListFilter(null, null, null, null, null, null);
+
+	/**
+	 * Longitud mínima de la búsqueda libre. Con menos de 3 caracteres no hay
+	 * trigramas completos y PostgreSQL no podría usar el índice GIN.
+	 */
+	public static final int MIN_SEARCH_LENGTH = 3;
+
+	/**
+	 * Normaliza los textos: los campos vacíos del formulario llegan como ""
+	 * y se tratan igual que si no se hubieran enviado.
+	 */
+	public UserListFilter {
+		search = blankToNull(search);
+		emailDomain = blankToNull(emailDomain);
+		nameFragment = blankToNull(nameFragment);
+
+		if (emailDomain != null && emailDomain.startsWith("@")) {
+			emailDomain = emailDomain.substring(1);
+		}
+	}
+
+	/** Indica si no hay ningún criterio activo. */
+	public boolean isEmpty() {
+		return search == null && admin == null && emailDomain == null && nameFragment == null
+			&& createdFrom == null && createdTo == null;
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+}
@@ -0,0 +1,37 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.db;
+
+import java.util.List;
+
+/**
+ * Una página del listado de usuarios obtenida por paginación keyset.
+ *
+ * @param users          Filas de la página, ya en el orden solicitado.
+ * @param nextCursor     Token para la página siguiente (null si es la última).
+ * @param previousCursor Token para la página anterior (null si es la primera).
+ */
+public record UserListPage(
+	List<UserListRow> users,
+	String nextCursor,
+	String previousCursor
+) {
+
+	/**
+	 * Copia inmutable de las filas: la página puede guardarse en caché y
+	 * compartirse entre peticiones.
+	 */
+	public UserListPage {
+		users = List.copyOf(users);
+	}
+
+	/** Indica si existe una página posterior. */
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+
+	/** Indica si existe una página anterior. */
+	public boolean hasPrevious() {
+		return previousCursor != null;
+	}
+}
@@ -0,0 +1,49 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.db;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de un usuario para los listados.
+ *
+ * Contiene únicamente las columnas que se muestran en pantalla. Se construye
+ * directamente en la consulta con una expresión constructora:
+ *
+ *   SELECT new com.example.htmlapp.model.db.UserListRow(
+ *            u.id, u.email, u.fullName, u.isAdmin, u.creationTimestamp)
+ *   FROM User u ...
+ *
+ * ----------------------------------------------------------------------------
+ * ¿POR QUÉ NO USAR LA ENTIDAD User?
+ * ----------------------------------------------------------------------------
+ * - No se leen `salt` ni `password_hash` (menos datos por fila y nada
+ *   sensible viajando hacia las plantillas).
+ * - Un DTO no es una entidad gestionada: Hibernate no lo guarda en el
+ *   contexto de persistencia ni toma una copia para el dirty checking, así
+ *   que cada fila cuesta solo el propio objeto.
+ * - Es inmutable (record), por lo que puede compartirse sin riesgo.
+ *
+ * @param id                ID del usuario.
+ * @param email             Email.
+ * @param fullName          Nombre completo (puede ser null).
+ * @param admin             Si es administrador (null se trata como false).
+ * @param creationTimestamp Fecha de alta.
+ */
+public record UserListRow(
+	Integer id,
+	String email,
+	String fullName,
+	Boolean admin,
+	LocalDateTime creationTimestamp
+) implements Serializable {
+
+	/**
+	 * Igual que en User: las plantillas leen `${user.admin}` sin comprobar
+	 * null.
+	 */
+	public UserListRow {
+		admin = Boolean.TRUE.equals(admin);
+	}
+}
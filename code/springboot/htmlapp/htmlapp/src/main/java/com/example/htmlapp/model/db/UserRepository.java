@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -24,14 +25,20 @@ import org.springframework.transaction.annotation.Transactional;
  *   - count()
  *
  * Además, incluye operaciones personalizadas definidas en
- * UserRepositoryCustom (como insert() con refresh) e implementadas
- * en UserRepositoryImpl.
+ * UserRepositoryCustom (como insert() con refresh o el listado paginado
+ * por keyset) e implementadas en UserRepositoryImpl.
  *
- * También define métodos de ordenación y operaciones masivas (bulk).
+ * Hereda también de JpaSpecificationExecutor, que permite ejecutar
+ * consultas construidas combinando Specifications (ver UserSpecifications)
+ * en lugar de declarar un método por cada combinación de filtro y orden.
+ *
+ * También define operaciones masivas (bulk).
  */
 @Repository
 public interface UserRepository
-	extends JpaRepository<User, Integer>, UserRepositoryCustom {
+	extends JpaRepository<User, Integer>,
+	        JpaSpecificationExecutor<User>,
+	        UserRepositoryCustom {
 
 	// -------------------------------------------------------------------------
 	// MÉTODOS DE BÚSQUEDA
@@ -46,37 +53,48 @@ public interface UserRepository
 	Optional<User> findByEmail(String email);
 
 	/**
-	 * Recupera todos los usuarios cuyos IDs estén en la lista indicada.
+	 * Recupera, como proyección de solo lectura, los usuarios cuyos IDs estén
+	 * en la lista indicada (usado en la confirmación de acciones masivas).
 	 *
 	 * @param ids Lista de identificadores.
-	 * @return Lista de usuarios coincidentes.
+	 * @return Filas de los usuarios coincidentes, ordenadas por email.
 	 */
-	List<User> findAllByIdIn(List<Integer> ids);
-
-	// -------------------------------------------------------------------------
-	// MÉTODOS DE ORDENACIÓN PERSONALIZADA
-	// -------------------------------------------------------------------------
-
-	// Ordenar por EMAIL
-	@Query("SELECT u FROM User u ORDER BY u.email ASC")
-	List<User> findAllOrderByEmailAsc();
-
-	@Query("SELECT u FROM User u ORDER BY u.email DESC")
-	List<User> findAllOrderByEmailDesc();
+	@Query("""
+		SELECT new com.example.htmlapp.model.db.UserListRow(
+			u.id, u.email, u.fullName, u.isAdmin, u.creationTimestamp)
+		FROM User u
+		WHERE u.id IN :ids
+		ORDER BY u.email
+		""")
+	List<UserListRow> findRowsByIdIn(List<Integer> ids);
 
-	// Ordenar por NOMBRE COMPLETO
-	@Query("SELECT u FROM User u ORDER BY u.fullName ASC")
-	List<User> findAllOrderByFullNameAsc();
-
-	@Query("SELECT u FROM User u ORDER BY u.fullName DESC")
-	List<User> findAllOrderByFullNameDesc();
+	/**
+	 * Recupera la versión actual de los usuarios indicados (los que ya no
+	 * existen no aparecen en el resultado).
+	 *
+	 * @param ids Lista de identificadores.
+	 * @return ID y versión de cada usuario encontrado.
+	 */
+	@Query("SELECT new com.example.htmlapp.model.db.UserVersion(u.id, u.version) FROM User u WHERE u.id IN :ids")
+	List<UserVersion> findVersionsByIdIn(List<Integer> ids);
 
-	// Ordenar por FECHA DE CREACIÓN
-	@Query("SELECT u FROM User u ORDER BY u.creationTimestamp ASC")
-	List<User> findAllOrderByCreationTimestampAsc();
+	/**
+	 * Recupera la versión actual de un usuario (vacío si no existe).
+	 *
+	 * @param id Identificador del usuario.
+	 * @return Versión de la fila.
+	 */
+	@Query("SELECT u.version FROM User u WHERE u.id = :id")
+	Optional<Long> findVersionById(Integer id);
 
-	@Query("SELECT u FROM User u ORDER BY u.creationTimestamp DESC")
-	List<User> findAllOrderByCreationTimestampDesc();
+	/**
+	 * Devuelve cuáles de los IDs indicados existen (sin bloquear las filas).
+	 *
+	 * @param ids Lista de identificadores.
+	 * @return IDs existentes.
+	 */
+	@Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+	List<Integer> findExistingIds(List<Integer> ids);
 
 	// -------------------------------------------------------------------------
 	// OPERACIONES MASIVAS (BULK)
@@ -85,23 +103,34 @@ public interface UserRepository
 	/**
 	 * Elimina en bloque los usuarios cuyos IDs coincidan con la lista.
 	 *
+	 * Es una sola sentencia DELETE. Un método derivado (deleteAllByIdIn)
+	 * haría un SELECT de todas las entidades y luego un DELETE por cada una.
+	 * Como no pasa por el contexto de persistencia, las entidades ya
+	 * cargadas en la transacción no se enteran del borrado.
+	 *
 	 * @param ids Lista de IDs a eliminar.
+	 * @return Número de usuarios eliminados.
 	 */
-	void deleteAllByIdIn(List<Integer> ids);
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM User u WHERE u.id IN :ids")
+	int deleteAllByIds(List<Integer> ids);
 
 	/**
 	 * Actualiza en bloque el estado de administrador de varios usuarios.
 	 *
 	 * Este método usa una query de actualización directa (sin cargar entidades),
 	 * lo que lo hace mucho más eficiente para grandes volúmenes de datos.
+	 * Como no pasa por Hibernate, incrementa la versión a mano.
 	 *
 	 * @param ids     Lista de IDs de usuarios.
 	 * @param isAdmin Nuevo valor para el campo `isAdmin`.
+	 * @return Número de filas actualizadas.
 	 */
 	@Transactional
 	@Modifying
-	@Query("UPDATE User u SET u.isAdmin = :isAdmin WHERE u.id IN :ids")
-	void updateAdminStatusByIds(List<Integer> ids, boolean isAdmin);
+	@Query("UPDATE User u SET u.isAdmin = :isAdmin, u.version = u.version + 1 WHERE u.id IN :ids")
+	int updateAdminStatusByIds(List<Integer> ids, boolean isAdmin);
 }
 
 /*
@@ -129,17 +158,37 @@ Usar consultas JPQL como:
 permite que la base de datos actualice todos los registros en una sola
 operación SQL, sin necesidad de cargar entidades en memoria.
 
+Ojo: "IN :ids" no es una sola sentencia SQL, sino una por tamaño de lista
+("IN (?,?)", "IN (?,?,?)", ...). Con lotes de tamaño variable cada tamaño
+ocuparía su propia entrada en la caché de planes de Hibernate y en la de
+sentencias preparadas de PostgreSQL. application.yml activa
+`hibernate.query.in_clause_parameter_padding`: la lista se rellena hasta la
+siguiente potencia de 2 (repitiendo el último ID) y cada consulta de este
+repositorio con "IN :ids" (también `claimIds`) queda en unas pocas
+variantes fijas (ver tools/InClausePlanCacheCheck).
+
 4. DIFERENCIA ENTRE MÉTODOS CRUD Y BULK
 ----------------------------------------
 - Los métodos CRUD (`saveAll`, `deleteAll`) respetan el ciclo de vida JPA,
   incluyendo validaciones y sincronización de caché.
-- Los métodos bulk (`updateAdminStatusByIds`, `deleteAllByIdIn`) actúan
+- Los métodos bulk (`updateAdminStatusByIds`, `deleteAllByIds`) actúan
   directamente sobre la base de datos, sin pasar por el contexto de persistencia.
+- Cuidado con los borrados DERIVADOS (`deleteAllByIdIn`): parecen masivos,
+  pero Spring Data los ejecuta como SELECT + un DELETE por entidad. Para
+  borrar muchas filas hace falta una @Query DELETE como `deleteAllByIds`
+  (ver tools/BulkDeleteBenchmark).
+
+5. FILTROS Y ORDENACIÓN COMPONIBLES
+------------------------------------
+En lugar de un método JPQL por cada pareja (campo, dirección), el listado
+se construye combinando Specifications (UserSpecifications) con el orden y
+el cursor keyset en UserRepositoryImpl.findKeysetPage(). Cualquier
+combinación de filtros genera una única sentencia SQL parametrizada.
 
-5. OBJETIVO PEDAGÓGICO
+6. OBJETIVO PEDAGÓGICO
 ------------------------
 Este repositorio enseña cómo:
- - Combinar JPQL y métodos derivados automáticos.
+ - Combinar JPQL, métodos derivados automáticos y Specifications.
  - Implementar operaciones masivas eficientes.
  - Aplicar buenas prácticas de transaccionalidad y diseño limpio.
 ===============================================================================
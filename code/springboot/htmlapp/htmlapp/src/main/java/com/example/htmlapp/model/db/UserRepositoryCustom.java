@@ -2,6 +2,14 @@
 
 package com.example.htmlapp.model.db;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.htmlapp.model.enums.SortDirection;
+import com.example.htmlapp.model.enums.UserOrderField;
+
 /**
  * Interfaz de repositorio personalizado para operaciones específicas
  * no cubiertas por JpaRepository.
@@ -19,4 +27,102 @@ public interface UserRepositoryCustom {
 	 * @return La misma entidad actualizada (refrescada desde la BD).
 	 */
 	User insert(User user);
-}
\ No newline at end of file
+
+	/**
+	 * Recupera una página del listado de usuarios por paginación keyset.
+	 *
+	 * En lugar de OFFSET (que obliga a recorrer y descartar todas las filas
+	 * anteriores), la consulta "salta" directamente a la posición del cursor:
+	 *
+	 *   WHERE (clave > :clave) OR (clave = :clave AND id_user > :id)
+	 *   ORDER BY clave, id_user
+	 *   LIMIT :limit
+	 *
+	 * Con un índice (clave, id_user) el coste es el mismo para la primera
+	 * página que para la página diez mil.
+	 *
+	 * Devuelve proyecciones UserListRow (no entidades), así que no se leen
+	 * salt ni password_hash y las filas no quedan gestionadas por Hibernate.
+	 *
+	 * Los filtros llegan como Specification y se añaden con AND al salto del
+	 * cursor, de modo que filtro + orden + cursor forman una sola consulta.
+	 *
+	 * @param spec      Filtro a aplicar (null = sin filtro).
+	 * @param orderBy   Campo de ordenación.
+	 * @param direction Dirección del orden visible en pantalla.
+	 * @param cursor    Fila de referencia (null para empezar desde el principio).
+	 * @param backwards true para leer las filas ANTERIORES al cursor (página
+	 *                  previa). Se devuelven en orden inverso al visible.
+	 * @param limit     Número máximo de filas a devolver.
+	 * @return Filas de la página.
+	 */
+	List<UserListRow> findKeysetPage(
+		Specification<User> spec,
+		UserOrderField orderBy,
+		SortDirection direction,
+		UserListCursor cursor,
+		boolean backwards,
+		int limit
+	);
+
+	/**
+	 * Recorre en streaming TODAS las filas que cumplen el filtro, en el orden
+	 * indicado, sin cargarlas a la vez en memoria.
+	 *
+	 * El Stream debe consumirse dentro de una transacción (autocommit
+	 * desactivado, para que PostgreSQL use un cursor de servidor) y cerrarse
+	 * al terminar (try-with-resources).
+	 *
+	 * @param spec      Filtro a aplicar (null = sin filtro).
+	 * @param orderBy   Campo de ordenación.
+	 * @param direction Dirección del orden.
+	 * @param fetchSize Filas que el driver pide al servidor en cada viaje.
+	 * @return Stream de filas (hay que cerrarlo).
+	 */
+	Stream<UserListRow> streamRows(
+		Specification<User> spec,
+		UserOrderField orderBy,
+		SortDirection direction,
+		int fetchSize
+	);
+
+	/**
+	 * Recorre en streaming los emails de todos los usuarios (solo esa
+	 * columna), p. ej. para construir el filtro de emails de EmailFilter.
+	 *
+	 * Igual que streamRows(): consumir dentro de una transacción y cerrar.
+	 *
+	 * @param fetchSize Filas que el driver pide al servidor en cada viaje.
+	 * @return Stream de emails (hay que cerrarlo).
+	 */
+	Stream<String> streamEmails(int fetchSize);
+
+	/**
+	 * Bloquea (FOR UPDATE) las filas de los IDs indicados que no estén ya
+	 * bloqueadas por otra transacción, y devuelve sus IDs.
+	 *
+	 * Usa SKIP LOCKED: las filas que otra operación tiene bloqueadas no se
+	 * esperan, simplemente no aparecen en el resultado. Así dos operaciones
+	 * masivas sobre usuarios comunes no se bloquean entre sí: cada una
+	 * procesa las filas que ha conseguido y reintenta las demás después.
+	 *
+	 * Debe llamarse dentro de una transacción: los bloqueos duran hasta su
+	 * commit o rollback.
+	 *
+	 * @param ids IDs a reclamar.
+	 * @return IDs reclamados (existentes y no bloqueados), ordenados.
+	 */
+	List<Integer> claimIds(List<Integer> ids);
+
+	/**
+	 * Devuelve, en orden de ID, los siguientes `limit` IDs de usuarios que
+	 * cumplen el filtro a partir de `afterId` (paginación keyset por la clave
+	 * primaria).
+	 *
+	 * @param spec    Filtro a aplicar (null = todos).
+	 * @param afterId Último ID del bloque anterior (null = desde el principio).
+	 * @param limit   Máximo de IDs.
+	 * @return IDs ordenados de menor a mayor.
+	 */
+	List<Integer> findIdsMatchingAfter(Specification<User> spec, Integer afterId, int limit);
+}
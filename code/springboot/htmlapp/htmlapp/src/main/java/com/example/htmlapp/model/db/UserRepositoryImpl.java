@@ -2,11 +2,29 @@
 
 package com.example.htmlapp.model.db;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.htmlapp.model.enums.SortDirection;
+import com.example.htmlapp.model.enums.UserOrderField;
+
 /**
  * Implementación personalizada del repositorio de usuarios.
  *
@@ -28,6 +46,171 @@ public class UserRepositoryImpl implements UserRepositoryCustom {
 		entityManager.refresh(user); // Recupera valores generados por la BD
 		return user;
 	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<UserListRow> findKeysetPage(
+		Specification<User> spec,
+		UserOrderField orderBy,
+		SortDirection direction,
+		UserListCursor cursor,
+		boolean backwards,
+		int limit
+	) {
+		// Leer hacia atrás = invertir la dirección del orden y de la comparación
+		boolean ascending = (direction == SortDirection.ASC) != backwards;
+
+		return entityManager.createQuery(rowQuery(spec, orderBy, ascending, cursor))
+			.setMaxResults(limit)
+			.getResultList();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Stream<UserListRow> streamRows(
+		Specification<User> spec,
+		UserOrderField orderBy,
+		SortDirection direction,
+		int fetchSize
+	) {
+		return entityManager
+			.createQuery(rowQuery(spec, orderBy, direction == SortDirection.ASC, null))
+			.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+			.setHint(HibernateHints.HINT_READ_ONLY, true)
+			.getResultStream();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Stream<String> streamEmails(int fetchSize) {
+		return entityManager
+			.createQuery("SELECT u.email FROM User u", String.class)
+			.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+			.setHint(HibernateHints.HINT_READ_ONLY, true)
+			.getResultStream();
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	@SuppressWarnings("unchecked")
+	public List<Integer> claimIds(List<Integer> ids) {
+		// Consulta nativa: JPQL no tiene SKIP LOCKED. El ORDER BY hace que
+		// los bloqueos se tomen siempre en el mismo orden.
+		return ((List<Number>) entityManager.createNativeQuery("""
+				SELECT id_user FROM users
+				WHERE id_user IN (:ids)
+				ORDER BY id_user
+				FOR UPDATE SKIP LOCKED
+				""")
+			.setParameter("ids", ids)
+			.getResultList())
+			.stream()
+			.map(Number::intValue)
+			.toList();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Integer> findIdsMatchingAfter(Specification<User> spec, Integer afterId, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+		Root<User> user = query.from(User.class);
+		Path<Integer> id = user.get("id");
+		query.select(id);
+
+		List<Predicate> predicates = new ArrayList<>();
+		Predicate filter = spec != null ? spec.toPredicate(user, query, cb) : null;
+		if (filter != null) {
+			predicates.add(filter);
+		}
+		if (afterId != null) {
+			predicates.add(cb.greaterThan(id, afterId));
+		}
+		query.where(predicates.toArray(Predicate[]::new));
+		query.orderBy(cb.asc(id));
+
+		return entityManager.createQuery(query)
+			.setMaxResults(limit)
+			.getResultList();
+	}
+
+	/**
+	 * Construye la consulta del listado: proyección UserListRow + filtro +
+	 * orden (clave, id) + salto tras el cursor (si lo hay).
+	 */
+	private CriteriaQuery<UserListRow> rowQuery(
+		Specification<User> spec,
+		UserOrderField orderBy,
+		boolean ascending,
+		UserListCursor cursor
+	) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<UserListRow> query = cb.createQuery(UserListRow.class);
+		Root<User> user = query.from(User.class);
+		List<Predicate> where = new ArrayList<>();
+
+		Predicate filter = spec != null ? spec.toPredicate(user, query, cb) : null;
+		if (filter != null) {
+			where.add(filter);
+		}
+
+		switch (orderBy) {
+			case EMAIL -> seek(cb, query, user, where,
+				user.<String>get("email"),
+				cursor != null ? cursor.key() : null,
+				cursor, ascending);
+			case FULL_NAME -> seek(cb, query, user, where,
+				cb.coalesce(user.<String>get("fullName"), ""),
+				cursor != null ? cursor.key() : null,
+				cursor, ascending);
+			case CREATION_DATETIME -> seek(cb, query, user, where,
+				user.<LocalDateTime>get("creationTimestamp"),
+				cursor != null ? LocalDateTime.parse(cursor.key()) : null,
+				cursor, ascending);
+		}
+
+		// Proyección: solo las columnas del listado, sin entidades gestionadas
+		return query.select(cb.construct(UserListRow.class,
+				user.get("id"),
+				user.get("email"),
+				user.get("fullName"),
+				user.get("isAdmin"),
+				user.get("creationTimestamp")))
+			.where(where.toArray(Predicate[]::new));
+	}
+
+	/**
+	 * Añade la condición de "salto" tras el cursor y el ORDER BY (clave, id).
+	 *
+	 * El id se ordena en la misma dirección que la clave para que PostgreSQL
+	 * pueda recorrer un único índice (clave, id_user) hacia delante o atrás.
+	 */
+	private <K extends Comparable<? super K>> void seek(
+		CriteriaBuilder cb,
+		CriteriaQuery<?> query,
+		Root<User> user,
+		List<Predicate> where,
+		Expression<K> key,
+		K cursorKey,
+		UserListCursor cursor,
+		boolean ascending
+	) {
+		Path<Integer> id = user.get("id");
+
+		if (cursor != null) {
+			where.add(ascending
+				? cb.or(
+					cb.greaterThan(key, cursorKey),
+					cb.and(cb.equal(key, cursorKey), cb.greaterThan(id, cursor.id())))
+				: cb.or(
+					cb.lessThan(key, cursorKey),
+					cb.and(cb.equal(key, cursorKey), cb.lessThan(id, cursor.id()))));
+		}
+
+		query.orderBy(ascending
+			? List.of(cb.asc(key), cb.asc(id))
+			: List.of(cb.desc(key), cb.desc(id)));
+	}
 }
 
 /*
@@ -57,7 +240,32 @@ la siguiente consulta.
 - `insert()` aquí está diseñado solo para nuevas entidades y devuelve
   los valores reales que la base de datos haya generado.
 
-4. OBJETIVO PEDAGÓGICO
+4. PAGINACIÓN KEYSET (findKeysetPage)
+--------------------------------------
+Con OFFSET, la página N obliga a la BD a leer y descartar N * tamaño filas,
+así que cada página es más lenta que la anterior. Con keyset se recuerda la
+última fila mostrada (el cursor) y se pide "lo que viene después", lo que
+con un índice (clave, id_user) es un simple recorrido de rango.
+
+La consulta se construye con la API Criteria porque la expresión de la clave
+cambia según el campo (email, COALESCE(full_name, '') o creation_datetime) y
+la comparación cambia según la dirección. Los filtros (Specification) se
+traducen a predicados sobre el mismo Root y se combinan con AND.
+
+El SELECT usa cb.construct(UserListRow.class, ...): la BD devuelve solo cinco
+columnas y Hibernate crea DTOs inmutables que no entran en el contexto de
+persistencia (no hay snapshot ni dirty checking por fila).
+
+5. LECTURA EN STREAMING (streamRows)
+-------------------------------------
+getResultList() carga todas las filas en memoria antes de devolverlas.
+getResultStream() las va leyendo a medida que se consumen, y con la pista
+HINT_FETCH_SIZE el driver de PostgreSQL las pide al servidor en bloques de
+ese tamaño mediante un cursor de servidor. Para que pgjdbc use ese cursor
+la conexión debe tener autocommit desactivado, es decir, el Stream debe
+consumirse DENTRO de una transacción (y cerrarse al terminar).
+
+6. OBJETIVO PEDAGÓGICO
 ------------------------
 Este ejemplo enseña cómo extender un repositorio de Spring Data con
 operaciones personalizadas cuando necesitamos comportamiento más fino
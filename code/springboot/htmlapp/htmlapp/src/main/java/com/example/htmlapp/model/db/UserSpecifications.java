@@ -0,0 +1,141 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.db;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Catálogo de Specifications (predicados reutilizables) sobre User.
+ *
+ * Cada método devuelve un criterio independiente que se puede combinar con
+ * los demás (and / or / allOf). Si el valor recibido es null, el criterio
+ * devuelve un predicado null, que Spring Data y Criteria ignoran: así un
+ * mismo código sirve para cualquier combinación de filtros, y cada una se
+ * traduce en UNA sola sentencia SQL parametrizada.
+ *
+ * ----------------------------------------------------------------------------
+ * RELACIÓN CON LOS ÍNDICES (docs/db/users.sql)
+ * ----------------------------------------------------------------------------
+ * Las expresiones usadas aquí coinciden con las de los índices:
+ *  - isAdmin(true)     → is_admin                (índice parcial WHERE is_admin)
+ *  - emailDomain(d)    → email_domain = ?        (columna generada + índice)
+ *  - textSearch(t)     → lower(email) LIKE ? OR lower(full_name) LIKE ?
+ *                        (dos índices GIN pg_trgm, combinados con BitmapOr)
+ *  - nameContains(f)   → lower(full_name) LIKE ? (índice GIN pg_trgm)
+ *  - createdFrom/To(d) → creation_datetime >= / < ?
+ */
+public final class UserSpecifications {
+
+	private UserSpecifications() {
+	}
+
+	/**
+	 * Combina todos los criterios de un filtro con AND.
+	 *
+	 * @param filter Filtro (puede ser null).
+	 * @return Specification equivalente al filtro completo.
+	 */
+	public static Specification<User> matching(UserListFilter filter) {
+		if (filter == null) {
+			filter = UserListFilter.NONE;
+		}
+
+		return Specification.allOf(
+			textSearch(filter.search()),
+			isAdmin(filter.admin()),
+			emailDomain(filter.emailDomain()),
+			nameContains(filter.nameFragment()),
+			createdFrom(filter.createdFrom()),
+			createdTo(filter.createdTo())
+		);
+	}
+
+	/**
+	 * Filtra por el indicador de administrador.
+	 *
+	 * Se usa isTrue / isFalse en lugar de equal(..., parámetro) para que el
+	 * valor quede fijo en el SQL y PostgreSQL pueda elegir el índice parcial.
+	 */
+	public static Specification<User> isAdmin(Boolean admin) {
+		return (root, query, cb) -> {
+			if (admin == null) return null;
+			return admin
+				? cb.isTrue(root.get("isAdmin"))
+				: cb.isFalse(root.get("isAdmin"));
+		};
+	}
+
+	/** Filtra por dominio del email (sin distinguir mayúsculas). */
+	public static Specification<User> emailDomain(String domain) {
+		return (root, query, cb) -> domain == null
+			? null
+			: cb.equal(root.get("emailDomain"), domain.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Búsqueda libre: el texto aparece en el email o en el nombre completo.
+	 *
+	 * Ambas columnas tienen un índice GIN de trigramas sobre lower(columna),
+	 * así que PostgreSQL resuelve el OR con un BitmapOr de los dos índices
+	 * en lugar de recorrer toda la tabla.
+	 */
+	public static Specification<User> textSearch(String text) {
+		return (root, query, cb) -> {
+			if (text == null) return null;
+			String pattern = containsPattern(text);
+			return cb.or(
+				cb.like(cb.lower(root.get("email")), pattern, '\\'),
+				cb.like(cb.lower(root.get("fullName")), pattern, '\\'));
+		};
+	}
+
+	/** Filtra por un fragmento contenido en el nombre completo. */
+	public static Specification<User> nameContains(String fragment) {
+		return (root, query, cb) -> fragment == null
+			? null
+			: cb.like(
+				cb.lower(root.get("fullName")),
+				containsPattern(fragment),
+				'\\');
+	}
+
+	/** Usuarios creados desde el día indicado (incluido). */
+	public static Specification<User> createdFrom(LocalDate from) {
+		return (root, query, cb) -> from == null
+			? null
+			: cb.greaterThanOrEqualTo(
+				root.<LocalDateTime>get("creationTimestamp"), from.atStartOfDay());
+	}
+
+	/** Usuarios creados hasta el día indicado (incluido). */
+	public static Specification<User> createdTo(LocalDate to) {
+		return (root, query, cb) -> to == null
+			? null
+			: cb.lessThan(
+				root.<LocalDateTime>get("creationTimestamp"),
+				to.plusDays(1).atStartOfDay());
+	}
+
+	/** Excluye al usuario indicado (p. ej. el logado en las acciones masivas). */
+	public static Specification<User> notId(Integer id) {
+		return (root, query, cb) -> id == null
+			? null
+			: cb.notEqual(root.get("id"), id);
+	}
+
+	/**
+	 * Construye el patrón LIKE '%fragmento%' escapando los comodines que
+	 * pudiera contener el propio texto ('%', '_' y el carácter de escape).
+	 */
+	static String containsPattern(String fragment) {
+		String escaped = fragment.toLowerCase(Locale.ROOT)
+			.replace("\\", "\\\\")
+			.replace("%", "\\%")
+			.replace("_", "\\_");
+		return "%" + escaped + "%";
+	}
+}
@@ -0,0 +1,18 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.db;
+
+/**
+ * Proyección con la versión actual de un usuario (columna users.version).
+ *
+ *   SELECT new com.example.htmlapp.model.db.UserVersion(u.id, u.version)
+ *   FROM User u WHERE u.id IN :ids
+ *
+ * La usa UserVersionRegistry para saber qué sesiones han quedado anticuadas
+ * sin cargar las entidades completas.
+ *
+ * @param id      ID del usuario.
+ * @param version Versión actual de la fila.
+ */
+public record UserVersion(Integer id, long version) {
+}
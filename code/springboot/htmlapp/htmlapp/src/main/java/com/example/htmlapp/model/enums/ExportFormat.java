@@ -0,0 +1,36 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.enums;
+
+/**
+ * Formatos disponibles para la exportación del listado de usuarios.
+ *
+ * - CSV    → una cabecera y una línea por usuario, separada por comas.
+ * - NDJSON → un objeto JSON por línea (Newline Delimited JSON).
+ *
+ * Ambos formatos se pueden escribir fila a fila, sin tener que construir el
+ * documento completo en memoria (a diferencia de un array JSON o un XLSX).
+ */
+public enum ExportFormat {
+
+	CSV("text/csv", "csv"),
+	NDJSON("application/x-ndjson", "ndjson");
+
+	private final String mediaType;
+	private final String extension;
+
+	ExportFormat(String mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	/** Tipo MIME de la respuesta. */
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	/** Extensión del fichero descargado. */
+	public String getExtension() {
+		return extension;
+	}
+}
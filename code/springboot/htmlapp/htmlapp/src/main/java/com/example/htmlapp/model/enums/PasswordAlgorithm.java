@@ -0,0 +1,19 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.enums;
+
+/**
+ * Algoritmos de hash de contraseñas soportados por PasswordService.
+ *
+ * El algoritmo configurado (htmlapp.password.algorithm) es el que se usa para
+ * los hashes NUEVOS; los hashes ya guardados se verifican siempre con el
+ * algoritmo que indica su propio formato.
+ */
+public enum PasswordAlgorithm {
+	/** SHA-256 de una sola vuelta (formato original, sin prefijo). */
+	SHA256,
+	/** PBKDF2 con HMAC-SHA256 e iteraciones configurables. */
+	PBKDF2,
+	/** BCrypt con coste (log2 de rondas) configurable. */
+	BCRYPT;
+}
@@ -9,8 +9,10 @@ import org.springframework.stereotype.Service;
 import com.example.htmlapp.model.db.User;
 import com.example.htmlapp.model.db.UserRepository;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio responsable de la autenticación y gestión de sesión.
@@ -23,14 +25,25 @@ import lombok.RequiredArgsConstructor;
  * ----------------------------------------------------------------------------
  * ESTRUCTURA GENERAL
  * ----------------------------------------------------------------------------
- * La sesión almacena directamente el objeto `User` completo para evitar
- * consultas repetidas a la base de datos. Esto simplifica el acceso
- * a propiedades como nombre o rol desde controladores y plantillas.
+ * La sesión almacena un `SessionUser`: una copia pequeña e inmutable del
+ * usuario (id, email, nombre, admin, versión) que evita consultas repetidas
+ * a la base de datos sin guardar en cada sesión la entidad completa (salt,
+ * hash de la contraseña...).
  *
  * Ejemplo de uso en Thymeleaf:
  *     <span th:text="${session.user.fullName}">Usuario</span>
- *     <span th:if="${session.user.isAdmin}">[ADMIN]</span>
+ *     <span th:if="${session.user.admin}">[ADMIN]</span>
+ *
+ * ----------------------------------------------------------------------------
+ * SESIONES SOLO PARA USUARIOS LOGADOS
+ * ----------------------------------------------------------------------------
+ * Las consultas (getUser, isAnonymous, isAdmin...) leen la sesión con
+ * request.getSession(false): si no existe, el visitante es anónimo y NO se
+ * crea ninguna. Solo login() crea la sesión. Así los robots y las
+ * comprobaciones de disponibilidad que piden / o /login no llenan el mapa
+ * de sesiones de Tomcat.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -39,7 +52,10 @@ public class AuthService {
 
 	private final UserRepository userRepository;
 	private final PasswordService passwordService;
-	private final HttpSession session;
+	private final UserService userService;
+	private final EmailFilter emailFilter;
+	private final UserVersionRegistry userVersions;
+	private final HttpServletRequest request;
 
 	// -------------------------------------------------------------------------
 	// LOGIN / LOGOUT
@@ -48,30 +64,83 @@ public class AuthService {
 	/**
 	 * Inicia sesión validando las credenciales del usuario.
 	 *
-	 * Si la autenticación es correcta, guarda el objeto User completo en la
-	 * sesión HTTP para su uso en controladores y plantillas.
+	 * Si la autenticación es correcta, guarda un SessionUser en la sesión HTTP
+	 * para su uso en controladores y plantillas.
+	 *
+	 * Hace una única consulta (por email): la contraseña se comprueba contra
+	 * el salt y el hash de la fila ya cargada, sin volver a buscarla por ID.
+	 *
+	 * Si el hash guardado usa un algoritmo o coste antiguos, se recalcula con
+	 * la configuración actual aprovechando que se conoce la contraseña.
+	 *
+	 * Si EmailFilter asegura que el email no existe, se responde sin consultar
+	 * la base de datos.
 	 *
 	 * @param email    Email del usuario.
 	 * @param password Contraseña en texto plano.
 	 * @return true si el login es correcto, false si no.
 	 */
 	public boolean login(String email, String password) {
+		if (!emailFilter.mightContain(email)) return false;
+
 		Optional<User> userOpt = userRepository.findByEmail(email);
-		if (userOpt.isEmpty()) return false;
+		if (userOpt.isEmpty()) {
+			emailFilter.recordFalsePositive();
+			return false;
+		}
 
 		User user = userOpt.get();
-		if (verifyPassword(user.getId(), password)) {
-			session.setAttribute(SESSION_USER, user);
+		if (verifyPassword(user, password)) {
+			upgradePasswordHash(user, password);
+			SessionUser sessionUser = SessionUser.of(user);
+			startSession().setAttribute(SESSION_USER, sessionUser);
+			userVersions.remember(sessionUser);
 			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Recalcula el hash de la contraseña si PasswordService lo indica.
+	 *
+	 * Un fallo aquí no impide el login: el hash antiguo sigue siendo válido y
+	 * se volverá a intentar en el siguiente inicio de sesión.
+	 */
+	private void upgradePasswordHash(User user, String password) {
+		if (!passwordService.needsRehash(user.getPasswordHash())) {
+			return;
+		}
+
+		try {
+			userService.changePassword(user, password);
+		} catch (RuntimeException ex) {
+			log.warn("No se pudo actualizar el hash del usuario {}", user.getId(), ex);
+		}
+	}
+
 	/**
 	 * Cierra la sesión actual, eliminando todos los datos almacenados.
 	 */
 	public void logout() {
-		session.invalidate();
+		HttpSession session = request.getSession(false);
+		if (session != null) {
+			session.invalidate();
+		}
+	}
+
+	/**
+	 * Devuelve la sesión para un usuario que acaba de autenticarse.
+	 *
+	 * Si ya existía una sesión (p. ej. creada por un login anterior), se le
+	 * cambia el identificador para evitar la fijación de sesión.
+	 */
+	private HttpSession startSession() {
+		HttpSession existing = request.getSession(false);
+		if (existing != null) {
+			request.changeSessionId();
+			return existing;
+		}
+		return request.getSession(true);
 	}
 
 	// -------------------------------------------------------------------------
@@ -80,20 +149,53 @@ public class AuthService {
 
 	/**
 	 * Devuelve el usuario actualmente en sesión (si lo hay).
+	 * No crea la sesión si no existe.
+	 *
+	 * Si UserVersionRegistry indica que el usuario ha cambiado desde que se
+	 * guardó en la sesión (p. ej. un administrador le ha quitado el rol), se
+	 * relee de la base de datos; si ha sido borrado, se cierra la sesión.
 	 */
-	public Optional<User> getUser() {
+	public Optional<SessionUser> getUser() {
+		HttpSession session = request.getSession(false);
+		if (session == null) {
+			return Optional.empty();
+		}
+
 		Object userObj = session.getAttribute(SESSION_USER);
-		if (userObj instanceof User user) {
+		if (!(userObj instanceof SessionUser user)) {
+			return Optional.empty();
+		}
+		if (!userVersions.isStale(user)) {
 			return Optional.of(user);
 		}
-		return Optional.empty();
+		return revalidate(session, user);
+	}
+
+	/**
+	 * Sustituye un SessionUser anticuado por los datos actuales, o cierra la
+	 * sesión si el usuario ya no existe.
+	 */
+	private Optional<SessionUser> revalidate(HttpSession session, SessionUser stale) {
+		Optional<SessionUser> fresh = userVersions.isDeleted(stale.id())
+			? Optional.empty()
+			: userRepository.findById(stale.id()).map(SessionUser::of);
+
+		if (fresh.isEmpty()) {
+			log.info("Cerrando la sesión del usuario borrado {}", stale.id());
+			session.invalidate();
+			return Optional.empty();
+		}
+
+		session.setAttribute(SESSION_USER, fresh.get());
+		userVersions.revalidated(fresh.get());
+		return fresh;
 	}
 
 	/**
 	 * Devuelve el ID del usuario actualmente logado (si lo hay).
 	 */
 	public Optional<Integer> getUserId() {
-		return getUser().map(User::getId);
+		return getUser().map(SessionUser::id);
 	}
 
 	/**
@@ -114,7 +216,7 @@ public class AuthService {
 	 * Indica si el usuario logado es administrador.
 	 */
 	public boolean isAdmin() {
-		return getUser().map(User::isAdmin).orElse(false);
+		return getUser().map(SessionUser::admin).orElse(false);
 	}
 
 	/**
@@ -129,14 +231,13 @@ public class AuthService {
 	// -------------------------------------------------------------------------
 
 	/**
-	 * Revalida y actualiza el objeto `User` almacenado en sesión desde la base
-	 * de datos. Se usa tras modificar datos del perfil o privilegios.
+	 * Revalida y sustituye el `SessionUser` almacenado en sesión con los datos
+	 * de la base de datos. Se usa tras modificar datos del perfil o privilegios.
 	 */
-	@SuppressWarnings("null")
 	public void refreshUser() {
 		getUser().ifPresent(u -> {
-			userRepository.findById(u.getId()).ifPresent(fresh -> {
-				session.setAttribute(SESSION_USER, fresh);
+			userRepository.findById(u.id()).ifPresent(fresh -> {
+				request.getSession().setAttribute(SESSION_USER, SessionUser.of(fresh));
 			});
 		});
 	}
@@ -155,13 +256,25 @@ public class AuthService {
 	 */
 	public boolean verifyPassword(int id, String rawPassword) {
 		return userRepository.findById(id)
-			.map(user -> passwordService.verifyPassword(
-				rawPassword,
-				user.getSalt(),
-				user.getPasswordHash()
-			))
+			.map(user -> verifyPassword(user, rawPassword))
 			.orElse(false);
 	}
+
+	/**
+	 * Comprueba la contraseña contra un usuario ya cargado, sin acceder a la
+	 * base de datos.
+	 *
+	 * @param user        Usuario (con salt y hash).
+	 * @param rawPassword Contraseña introducida por el usuario.
+	 * @return true si coincide, false si no.
+	 */
+	public boolean verifyPassword(User user, String rawPassword) {
+		return passwordService.verifyPassword(
+			rawPassword,
+			user.getSalt(),
+			user.getPasswordHash()
+		);
+	}
 }
 
 /*
@@ -176,10 +289,22 @@ NOTAS PEDAGÓGICAS
 
 2. SESIÓN Y RENDIMIENTO
 ------------------------
-   Guardar el objeto completo `User` en la sesión evita consultas repetidas.
+   Guardar el usuario en la sesión evita consultas repetidas. Se guarda un
+   `SessionUser` (record inmutable con id, email, nombre, admin y versión)
+   y no la entidad `User`: la sesión no necesita el salt ni el hash, y cada
+   byte se multiplica por el número de sesiones abiertas. tools/SessionFootprint
+   compara el tamaño de ambas variantes.
    El método `refreshUser()` sincroniza los cambios en memoria con la base
    de datos cuando el perfil o privilegios se actualizan.
 
+   Los cambios que hace OTRO usuario (un administrador que cambia roles o
+   borra usuarios, también en bloque) no pasan por refreshUser(): la sesión
+   afectada guarda una versión menor que la que conoce UserVersionRegistry
+   y `getUser()` la relee en su siguiente petición. Las demás sesiones no
+   hacen ninguna consulta extra. WebConfig llama a `getUser()` al principio
+   de cada petición para que las plantillas (`${session.user}`) también
+   vean los datos actualizados.
+
 3. USO DESDE CONTROLADORES
 ---------------------------
    - `authService.isLogged()` → saber si hay sesión activa.
@@ -189,9 +314,32 @@ NOTAS PEDAGÓGICAS
 4. USO DESDE PLANTILLAS THYMELEAF
 ----------------------------------
    - `${session.user.fullName}` → muestra el nombre del usuario.
-   - `<span th:if="${session.user.isAdmin}">[ADMIN]</span>` → muestra etiqueta admin.
+   - `<span th:if="${session.user.admin}">[ADMIN]</span>` → muestra etiqueta admin.
+
+5. UNA SOLA CONSULTA EN EL LOGIN
+--------------------------------
+   `login()` busca el usuario por email y verifica la contraseña con esa
+   misma fila (`verifyPassword(User, String)`). Antes se volvía a cargar
+   por ID, lo que costaba un segundo viaje a la base de datos por cada
+   intento. La herramienta tools/LoginBenchmark mide ambas variantes
+   (consultas por login y latencia p99 con varios hilos).
+
+6. EMAILS DESCONOCIDOS SIN CONSULTA
+------------------------------------
+   Antes de buscar por email se pregunta a EmailFilter, un filtro de Bloom
+   con todos los emails registrados. Un "no está" es seguro, así que los
+   intentos con emails inexistentes (muy habituales en ataques) no llegan
+   a la base de datos.
+
+7. ACTUALIZACIÓN DEL HASH EN EL LOGIN
+--------------------------------------
+   El login es el único momento en que se conoce la contraseña en claro.
+   Si el hash guardado es de un algoritmo antiguo (SHA-256) o de un coste
+   distinto del configurado, se recalcula y se guarda. Así se cambia de
+   algoritmo o se sube el coste sin migraciones masivas: cada usuario se
+   actualiza solo al iniciar sesión.
 
-5. OBJETIVO PEDAGÓGICO
+8. OBJETIVO PEDAGÓGICO
 ------------------------
    Este servicio demuestra cómo estructurar la autenticación en Spring MVC
    de forma clara y modular, manteniendo la lógica de negocio separada del
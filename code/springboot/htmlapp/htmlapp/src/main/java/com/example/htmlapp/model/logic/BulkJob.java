@@ -0,0 +1,210 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.example.htmlapp.model.enums.BulkActionType;
+
+/**
+ * Operación masiva lanzada en segundo plano (BulkJobService).
+ *
+ * Guarda el progreso lote a lote para que la página de progreso lo consulte
+ * mientras la operación sigue en marcha. Lo escribe el hilo del trabajo y lo
+ * leen las peticiones: los métodos que tocan el estado son `synchronized` y
+ * hacia fuera solo sale una foto inmutable (status()).
+ *
+ * Los oyentes (p. ej. una conexión SSE) reciben una foto nueva tras cada
+ * lote y al terminar.
+ */
+public class BulkJob {
+
+	/** Estado del trabajo. */
+	public enum State {
+		/** Esperando a que haya hueco en el ejecutor. */
+		QUEUED,
+		/** Procesando lotes. */
+		RUNNING,
+		/** Terminado (puede haber lotes fallidos; ver el resultado). */
+		DONE,
+		/** Interrumpido por un error fuera de los lotes. */
+		FAILED;
+
+		public boolean finished() {
+			return this == DONE || this == FAILED;
+		}
+	}
+
+	private final String id;
+	private final BulkActionType action;
+	private final int total;
+	private final Integer ownerId;
+	private final Instant createdAt = Instant.now();
+
+	private final List<Consumer<BulkJobStatus>> listeners = new CopyOnWriteArrayList<>();
+
+	private State state = State.QUEUED;
+	private long startedNanos;
+	private long finishedNanos;
+	private Instant finishedAt;
+	private int chunks;
+	private int processed;
+	private int affected;
+	private int failedChunks;
+	private BulkResult result;
+	private String error;
+
+	/**
+	 * @param id      Identificador del trabajo.
+	 * @param action  Acción a ejecutar.
+	 * @param total   IDs distintos a procesar.
+	 * @param ownerId Usuario que lo ha lanzado.
+	 */
+	public BulkJob(String id, BulkActionType action, int total, Integer ownerId) {
+		this.id = id;
+		this.action = action;
+		this.total = total;
+		this.ownerId = ownerId;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Integer getOwnerId() {
+		return ownerId;
+	}
+
+	/**
+	 * Devuelve el resultado final (null mientras no haya terminado bien).
+	 */
+	public synchronized BulkResult getResult() {
+		return result;
+	}
+
+	/**
+	 * Indica si terminó hace más de `retention` (se puede olvidar).
+	 */
+	public synchronized boolean expired(Instant now, Duration retention) {
+		return finishedAt != null && finishedAt.plus(retention).isBefore(now);
+	}
+
+	// -------------------------------------------------------------------------
+	// OYENTES
+	// -------------------------------------------------------------------------
+
+	public void addListener(Consumer<BulkJobStatus> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Consumer<BulkJobStatus> listener) {
+		listeners.remove(listener);
+	}
+
+	// -------------------------------------------------------------------------
+	// PROGRESO (lo llama el hilo del trabajo)
+	// -------------------------------------------------------------------------
+
+	void started() {
+		synchronized (this) {
+			state = State.RUNNING;
+			startedNanos = System.nanoTime();
+		}
+		notifyListeners();
+	}
+
+	/**
+	 * Anota un lote. Los IDs saltados por estar bloqueados no cuentan como
+	 * procesados: se reintentan en un lote posterior.
+	 */
+	void chunkDone(BulkResult.Chunk chunk) {
+		synchronized (this) {
+			chunks++;
+			processed += chunk.size() - chunk.skipped();
+			affected += chunk.affected();
+			if (!chunk.ok()) {
+				failedChunks++;
+			}
+		}
+		notifyListeners();
+	}
+
+	void finished(BulkResult result) {
+		synchronized (this) {
+			this.result = result;
+			finish(State.DONE);
+		}
+		notifyListeners();
+	}
+
+	void failed(String error) {
+		synchronized (this) {
+			this.error = error;
+			finish(State.FAILED);
+		}
+		notifyListeners();
+	}
+
+	private void finish(State finalState) {
+		state = finalState;
+		finishedNanos = System.nanoTime();
+		finishedAt = Instant.now();
+		if (startedNanos == 0) {
+			startedNanos = finishedNanos;
+		}
+	}
+
+	private void notifyListeners() {
+		BulkJobStatus status = status();
+		for (Consumer<BulkJobStatus> listener : listeners) {
+			// Un oyente que falla (p. ej. el navegador se ha ido) no para el trabajo
+			try {
+				listener.accept(status);
+			} catch (RuntimeException ex) {
+				listeners.remove(listener);
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// FOTO DEL ESTADO
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Devuelve el estado actual con las estadísticas de rendimiento.
+	 */
+	public synchronized BulkJobStatus status() {
+		long elapsedNanos = switch (state) {
+			case QUEUED -> 0;
+			case RUNNING -> System.nanoTime() - startedNanos;
+			case DONE, FAILED -> finishedNanos - startedNanos;
+		};
+		long elapsedMillis = elapsedNanos / 1_000_000;
+
+		double idsPerSecond = elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0;
+		Long etaSeconds = state == State.RUNNING && idsPerSecond > 0
+			? Math.round(Math.max(0, total - processed) / idsPerSecond)
+			: null;
+
+		return new BulkJobStatus(
+			id,
+			action,
+			state,
+			createdAt,
+			total,
+			processed,
+			affected,
+			chunks,
+			failedChunks,
+			result != null ? result.locked() : 0,
+			elapsedMillis,
+			Math.round(idsPerSecond),
+			etaSeconds,
+			error
+		);
+	}
+}
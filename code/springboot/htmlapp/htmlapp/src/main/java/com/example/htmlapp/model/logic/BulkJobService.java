@@ -0,0 +1,273 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.htmlapp.model.db.UserListFilter;
+import com.example.htmlapp.model.enums.BulkActionType;
+import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
+import com.example.htmlapp.model.logic.exceptions.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ejecuta operaciones masivas en segundo plano.
+ *
+ * Una operación sobre decenas de miles de usuarios tarda segundos o minutos.
+ * Ejecutada dentro de la petición, el navegador se queda esperando y el
+ * hilo de Tomcat queda ocupado todo ese tiempo. Con este servicio:
+ *
+ *   POST /userlist/bulk-success → submit() → id del trabajo (al momento)
+ *   GET  /userlist/bulk-jobs/{id} → página de progreso (SSE o consulta)
+ *
+ * El trabajo llama a UserListService.executeBulk(), que ya lo hace por
+ * lotes con su commit y reclamando las filas con SKIP LOCKED (dos trabajos
+ * sobre usuarios comunes no se bloquean entre sí), o a executeMatching()
+ * para "todos los que cumplen el filtro" (igual, por bloques de IDs).
+ *
+ * ----------------------------------------------------------------------------
+ * CONTROL DE ADMISIÓN
+ * ----------------------------------------------------------------------------
+ * - Cada trabajo corre en un hilo virtual propio: esperar en la cola no
+ *   ocupa un hilo del sistema.
+ * - Como mucho htmlapp.bulk.jobs.max-concurrent trabajos a la vez (un
+ *   semáforo): cada uno usa una conexión del pool mientras dura un lote, y
+ *   sin límite unos pocos administradores podrían dejar sin conexiones al
+ *   resto de la aplicación.
+ * - Como mucho htmlapp.bulk.jobs.max-queued esperando; con la cola llena se
+ *   responde 503 al momento (ServiceOverloadedException).
+ * - Los trabajos terminados se olvidan pasado htmlapp.bulk.jobs.retention.
+ *
+ * Los trabajos viven en la memoria de esta instancia: si se reinicia, los
+ * que estaban en marcha se cortan entre dos lotes (los lotes confirmados
+ * quedan guardados) y su página de progreso deja de existir.
+ *
+ * Con varias instancias (htmlapp.sessions.store=jdbc), la página de
+ * progreso solo funciona en la instancia que ejecuta el trabajo: el
+ * balanceador debe enviar cada sesión siempre a la misma instancia (sticky
+ * sessions), al menos en /userlist/bulk-jobs/**. El id de cada trabajo
+ * empieza por el de su instancia (isLocal()), así que una petición que
+ * llega a otra se distingue de un trabajo caducado y recibe un mensaje
+ * claro en lugar de "no existe".
+ *
+ * ----------------------------------------------------------------------------
+ * MÉTRICAS (/actuator/metrics)
+ * ----------------------------------------------------------------------------
+ *   bulk.jobs.running   → trabajos ejecutándose
+ *   bulk.jobs.queued    → trabajos esperando turno
+ *   bulk.jobs.wait      → tiempo en cola antes de empezar
+ *   bulk.jobs.duration  → duración de los trabajos
+ *   bulk.jobs.rejected  → trabajos rechazados por cola llena
+ */
+@Slf4j
+@Service
+public class BulkJobService {
+
+	/* prefijo de los ids de trabajo: identifica esta instancia (y arranque) */
+	private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+	private final UserListService userListService;
+	private final int maxConcurrent;
+	private final int maxQueued;
+	private final Duration retention;
+	private final Duration retryAfter;
+
+	private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+		Thread.ofVirtual().name("bulk-job-", 0).factory());
+	private final Semaphore slots;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+
+	private final Timer waitTimer;
+	private final Timer runTimer;
+	private final Counter rejected;
+
+	public BulkJobService(
+		UserListService userListService,
+		@Value("${htmlapp.bulk.jobs.max-concurrent:2}") int maxConcurrent,
+		@Value("${htmlapp.bulk.jobs.max-queued:20}") int maxQueued,
+		@Value("${htmlapp.bulk.jobs.retention:1h}") Duration retention,
+		@Value("${htmlapp.bulk.jobs.retry-after:10s}") Duration retryAfter,
+		MeterRegistry meterRegistry
+	) {
+		this.userListService = userListService;
+		this.maxConcurrent = Math.max(1, maxConcurrent);
+		this.maxQueued = Math.max(0, maxQueued);
+		this.retention = retention;
+		this.retryAfter = retryAfter;
+		this.slots = new Semaphore(this.maxConcurrent, true);
+
+		Gauge.builder("bulk.jobs.running", running, AtomicInteger::get)
+			.description("Operaciones masivas ejecutándose")
+			.register(meterRegistry);
+		// Sobre los contadores (no sobre `this`, que aún se está construyendo)
+		AtomicInteger started = running;
+		Gauge.builder("bulk.jobs.queued", pending, p -> p.get() - started.get())
+			.description("Operaciones masivas esperando turno")
+			.register(meterRegistry);
+
+		this.waitTimer = Timer.builder("bulk.jobs.wait")
+			.description("Tiempo en cola antes de empezar una operación masiva")
+			.register(meterRegistry);
+		this.runTimer = Timer.builder("bulk.jobs.duration")
+			.description("Duración de las operaciones masivas")
+			.register(meterRegistry);
+		this.rejected = Counter.builder("bulk.jobs.rejected")
+			.description("Operaciones masivas rechazadas por cola llena")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Lanza una operación masiva en segundo plano.
+	 *
+	 * @param action  Acción a ejecutar.
+	 * @param ids     IDs de los usuarios (ya sin el usuario logado).
+	 * @param ownerId Usuario que la lanza.
+	 * @return Trabajo creado (en cola o ya en marcha).
+	 * @throws ServiceOverloadedException si hay demasiados trabajos.
+	 */
+	public BulkJob submit(BulkActionType action, IdSet ids, Integer ownerId) {
+		if (ids == null || ids.isEmpty()) {
+			throw new OperationFailedException("No hay usuarios válidos para procesar.", 400);
+		}
+
+		// IdSet es inmutable: se puede pasar tal cual al hilo del trabajo
+		return start(action, ids.size(), ownerId,
+			onChunk -> userListService.executeBulk(action, ids, onChunk));
+	}
+
+	/**
+	 * Lanza en segundo plano una operación masiva sobre todos los usuarios
+	 * que cumplen el filtro, salvo el que la lanza
+	 * (UserListService.executeMatching()).
+	 *
+	 * @param action  Acción a ejecutar.
+	 * @param filter  Criterios de filtrado del listado.
+	 * @param ownerId Usuario que la lanza (queda excluido).
+	 * @return Trabajo creado (en cola o ya en marcha).
+	 * @throws ServiceOverloadedException si hay demasiados trabajos.
+	 */
+	public BulkJob submitMatching(BulkActionType action, UserListFilter filter, Integer ownerId) {
+		long total = userListService.countMatching(filter, ownerId);
+		if (total == 0) {
+			throw new OperationFailedException("Ningún usuario cumple el filtro.", 400);
+		}
+
+		return start(action, (int) total, ownerId,
+			onChunk -> userListService.executeMatching(action, filter, ownerId, onChunk));
+	}
+
+	/**
+	 * Busca un trabajo por su id.
+	 */
+	public Optional<BulkJob> find(String id) {
+		return Optional.ofNullable(id).map(jobs::get);
+	}
+
+	/**
+	 * Indica si el id corresponde a un trabajo lanzado en esta instancia
+	 * (desde su último arranque), exista todavía o no.
+	 */
+	public boolean isLocal(String id) {
+		return id != null && id.startsWith(instanceId + "-");
+	}
+
+	/**
+	 * Admite (o rechaza) un trabajo y lo pone en marcha.
+	 *
+	 * @param total Usuarios a procesar (para el progreso).
+	 * @param work  Ejecución, que recibe el aviso de cada lote.
+	 */
+	private BulkJob start(
+		BulkActionType action,
+		int total,
+		Integer ownerId,
+		Function<Consumer<BulkResult.Chunk>, BulkResult> work
+	) {
+		purgeExpired();
+
+		if (pending.incrementAndGet() > maxConcurrent + maxQueued) {
+			pending.decrementAndGet();
+			rejected.increment();
+			throw new ServiceOverloadedException(
+				"Hay demasiadas operaciones masivas en marcha. "
+					+ "Inténtelo de nuevo en unos segundos.",
+				retryAfter);
+		}
+
+		BulkJob job = new BulkJob(instanceId + "-" + UUID.randomUUID(), action, total, ownerId);
+		jobs.put(job.getId(), job);
+
+		long enqueued = System.nanoTime();
+		executor.execute(() -> run(job, work, enqueued));
+
+		log.info("Operación masiva {} lanzada: {} sobre {} usuarios", job.getId(), action, total);
+		return job;
+	}
+
+	private void run(
+		BulkJob job,
+		Function<Consumer<BulkResult.Chunk>, BulkResult> work,
+		long enqueued
+	) {
+		try {
+			slots.acquire();
+		} catch (InterruptedException ex) {
+			pending.decrementAndGet();
+			job.failed("Operación cancelada al detener el servidor.");
+			return;
+		}
+
+		running.incrementAndGet();
+		waitTimer.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+		try {
+			job.started();
+			BulkResult result = runTimer.record(() -> work.apply(job::chunkDone));
+			job.finished(result);
+
+		} catch (RuntimeException ex) {
+			log.error("Operación masiva {} interrumpida", job.getId(), ex);
+			job.failed("Error inesperado al ejecutar la operación.");
+		} finally {
+			running.decrementAndGet();
+			pending.decrementAndGet();
+			slots.release();
+		}
+	}
+
+	/**
+	 * Olvida los trabajos terminados hace más de htmlapp.bulk.jobs.retention.
+	 */
+	private void purgeExpired() {
+		Instant now = Instant.now();
+		jobs.values().removeIf(job -> job.expired(now, retention));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,58 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Instant;
+
+import com.example.htmlapp.model.enums.BulkActionType;
+
+/**
+ * Foto del progreso de una operación masiva en segundo plano (BulkJob).
+ *
+ * Es lo que recibe la página de progreso, por SSE o consultando
+ * /userlist/bulk-jobs/{id}/status (JSON).
+ *
+ * @param id           Identificador del trabajo.
+ * @param action       Acción.
+ * @param state        Estado (QUEUED, RUNNING, DONE, FAILED).
+ * @param createdAt    Momento en que se lanzó.
+ * @param total        IDs distintos a procesar.
+ * @param processed    IDs ya procesados (o en lotes fallidos).
+ * @param affected     Filas modificadas o borradas hasta ahora.
+ * @param chunks       Lotes ejecutados (incluidos reintentos).
+ * @param failedChunks Lotes fallidos.
+ * @param locked       IDs que seguían bloqueados al terminar.
+ * @param elapsedMillis Tiempo de ejecución (sin contar la espera en cola).
+ * @param idsPerSecond Ritmo medio de proceso.
+ * @param etaSeconds   Tiempo restante estimado (null si no se puede saber).
+ * @param error        Mensaje de error si el trabajo ha fallado.
+ */
+public record BulkJobStatus(
+	String id,
+	BulkActionType action,
+	BulkJob.State state,
+	Instant createdAt,
+	int total,
+	int processed,
+	int affected,
+	int chunks,
+	int failedChunks,
+	int locked,
+	long elapsedMillis,
+	long idsPerSecond,
+	Long etaSeconds,
+	String error
+) {
+
+	/**
+	 * Porcentaje procesado (0-100). En las operaciones por filtro el total es
+	 * el recuento previo y puede no coincidir con las filas finales.
+	 */
+	public int percent() {
+		return total > 0 ? (int) Math.min(100, processed * 100L / total) : 100;
+	}
+
+	public boolean finished() {
+		return state.finished();
+	}
+}
@@ -0,0 +1,79 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.example.htmlapp.model.enums.BulkActionType;
+
+/**
+ * Resultado de una operación masiva ejecutada por lotes
+ * (UserListService.executeBulk()).
+ *
+ * Cada lote se confirma por separado: si uno falla, los anteriores ya están
+ * guardados y los siguientes se intentan igualmente. Por eso el resultado
+ * se da lote a lote.
+ *
+ * Las filas que otra operación tenía bloqueadas se saltan y se reintentan
+ * en lotes posteriores; `locked` cuenta las que seguían bloqueadas al
+ * agotar los reintentos (no se han procesado).
+ *
+ * @param action    Acción ejecutada.
+ * @param requested IDs distintos recibidos.
+ * @param chunks    Resultado de cada lote (y de cada reintento), en orden.
+ * @param locked    IDs sin procesar por seguir bloqueados.
+ * @param elapsed   Duración total.
+ */
+public record BulkResult(
+	BulkActionType action,
+	int requested,
+	List<Chunk> chunks,
+	int locked,
+	Duration elapsed
+) {
+
+	public BulkResult {
+		chunks = List.copyOf(chunks);
+	}
+
+	/** Filas modificadas o borradas en total. */
+	public int affected() {
+		return chunks.stream().mapToInt(Chunk::affected).sum();
+	}
+
+	/** Número de lotes que han fallado (y se han deshecho). */
+	public long failedChunks() {
+		return chunks.stream().filter(c -> !c.ok()).count();
+	}
+
+	/** IDs de los lotes fallidos (no se han procesado). */
+	public int failedIds() {
+		return chunks.stream().filter(c -> !c.ok()).mapToInt(Chunk::size).sum();
+	}
+
+	/**
+	 * Resultado de un lote.
+	 *
+	 * @param index    Posición del lote (desde 0).
+	 * @param size     IDs del lote.
+	 * @param affected Filas afectadas (0 si ha fallado).
+	 * @param skipped  IDs saltados por estar bloqueados por otra operación
+	 *                 (se reintentan en un lote posterior).
+	 * @param millis   Duración del lote, incluido el commit.
+	 * @param error    Mensaje de error, o null si ha ido bien.
+	 */
+	public record Chunk(
+		int index,
+		int size,
+		int affected,
+		int skipped,
+		long millis,
+		String error
+	) {
+
+		public boolean ok() {
+			return error == null;
+		}
+	}
+}
@@ -0,0 +1,342 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.logic.events.UserChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro en memoria de los emails registrados (caché negativa).
+ *
+ * El login y el registro buscan el email en la base de datos aunque no
+ * exista. Con este filtro de Bloom esas consultas se evitan:
+ *
+ *   mightContain(email) == false → el email NO está registrado (seguro)
+ *   mightContain(email) == true  → puede estarlo: se consulta la BD
+ *
+ * Está DESACTIVADO por defecto (htmlapp.email-filter.enabled=false): solo
+ * es correcto si todas las altas pasan por esta instancia (ver "ALTAS FUERA
+ * DE ESTA INSTANCIA").
+ *
+ * ----------------------------------------------------------------------------
+ * CONSTRUCCIÓN Y MANTENIMIENTO
+ * ----------------------------------------------------------------------------
+ * - Al arrancar se recorren en streaming todos los emails (streamEmails)
+ *   en un hilo aparte. Mientras no termina, mightContain() responde true
+ *   (sin filtro, todo va a la BD como antes).
+ * - Cada email nuevo o modificado se añade con add() ANTES de escribir en la
+ *   BD y otra vez tras el commit, para que no haya falsos negativos ni
+ *   siquiera si la reconstrucción coincide con la escritura.
+ * - Un filtro de Bloom no permite borrar: los emails eliminados siguen
+ *   dando "puede estar" (falso positivo, solo cuesta una consulta). El
+ *   filtro se reconstruye desde la BD cuando los borrados (o cambios de
+ *   email) superan la cuarta parte de los emails cargados, o cuando las altas
+ *   hacen que la tasa estimada supere el doble de la configurada.
+ * - Además se reconstruye cada `rebuild-interval` (5 minutos por defecto;
+ *   0 lo desactiva), para recoger las altas que no ha visto.
+ *
+ * Los emails se comparan en minúsculas: dos emails que solo difieren en
+ * mayúsculas comparten entrada, lo que como mucho añade falsos positivos.
+ *
+ * ----------------------------------------------------------------------------
+ * ALTAS FUERA DE ESTA INSTANCIA
+ * ----------------------------------------------------------------------------
+ * El filtro solo aprende las altas hechas con UserService en su propia
+ * instancia. Un usuario insertado de otra forma (otra instancia sobre la
+ * misma BD, tools/GenerateUserInsert --execute, un INSERT manual como el
+ * del primer administrador) es "seguro que no existe" hasta la siguiente
+ * reconstrucción: durante ese tiempo su login falla con la contraseña
+ * correcta y un registro repetido acaba en error 500 (restricción única)
+ * en lugar de "El email ya está registrado".
+ *
+ * Ventana de desfase: hasta `rebuild-interval` más lo que tarde la carga.
+ * Actívelo solo si las altas externas son raras y esa ventana es aceptable.
+ *
+ * ----------------------------------------------------------------------------
+ * MÉTRICAS (/actuator/metrics)
+ * ----------------------------------------------------------------------------
+ *   email.filter.fpp.configured   → tasa de falsos positivos configurada
+ *   email.filter.fpp.expected     → tasa estimada con la ocupación actual
+ *   email.filter.bits             → tamaño del filtro en bits
+ *   email.filter.checks?tag=result:absent|maybe → consultas al filtro
+ *   email.filter.false.positives  → "puede estar" que la BD desmintió
+ */
+@Slf4j
+@Component
+public final class EmailFilter {
+
+	private final UserRepository userRepository;
+	private final TransactionTemplate readOnlyTx;
+
+	private final boolean enabled;
+	private final double fpp;
+	private final long expectedInsertions;
+	private final int fetchSize;
+	private final Duration rebuildInterval;
+
+	/** Reconstrucción periódica (null si está desactivada). */
+	private ScheduledExecutorService scheduler;
+
+	/** Filtro en uso (null = aún no construido). */
+	private volatile BloomFilter current;
+	/** Filtro que se está reconstruyendo (null si no hay reconstrucción). */
+	private volatile BloomFilter building;
+
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private final AtomicLong removedSinceBuild = new AtomicLong();
+	private volatile long loadedAtBuild;
+
+	private final Counter absent;
+	private final Counter maybe;
+	private final Counter falsePositives;
+
+	public EmailFilter(
+		UserRepository userRepository,
+		PlatformTransactionManager transactionManager,
+		@Value("${htmlapp.email-filter.enabled:false}") boolean enabled,
+		@Value("${htmlapp.email-filter.fpp:0.01}") double fpp,
+		@Value("${htmlapp.email-filter.expected-insertions:100000}") long expectedInsertions,
+		@Value("${htmlapp.email-filter.fetch-size:1000}") int fetchSize,
+		@Value("${htmlapp.email-filter.rebuild-interval:5m}") Duration rebuildInterval,
+		MeterRegistry meterRegistry
+	) {
+		this.userRepository = userRepository;
+		this.readOnlyTx = new TransactionTemplate(transactionManager);
+		this.readOnlyTx.setReadOnly(true);
+
+		this.enabled = enabled;
+		this.fpp = fpp;
+		this.expectedInsertions = expectedInsertions;
+		this.fetchSize = fetchSize;
+		this.rebuildInterval = rebuildInterval;
+
+		Gauge.builder("email.filter.fpp.configured", () -> fpp)
+			.description("Tasa de falsos positivos configurada")
+			.register(meterRegistry);
+		Gauge.builder("email.filter.fpp.expected", this, EmailFilter::expectedFpp)
+			.description("Tasa de falsos positivos estimada con la ocupación actual")
+			.register(meterRegistry);
+		Gauge.builder("email.filter.bits", this, f -> f.current != null ? f.current.bitCount() : 0)
+			.description("Tamaño del filtro en bits")
+			.register(meterRegistry);
+
+		this.absent = Counter.builder("email.filter.checks")
+			.tag("result", "absent")
+			.description("Consultas resueltas sin ir a la base de datos")
+			.register(meterRegistry);
+		this.maybe = Counter.builder("email.filter.checks")
+			.tag("result", "maybe")
+			.description("Consultas que necesitan ir a la base de datos")
+			.register(meterRegistry);
+		this.falsePositives = Counter.builder("email.filter.false.positives")
+			.description("Emails que el filtro daba como posibles y no existían")
+			.register(meterRegistry);
+	}
+
+	// -------------------------------------------------------------------------
+	// CONSULTA
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Indica si el email PUEDE estar registrado.
+	 *
+	 * @param email Email a comprobar.
+	 * @return false solo si es seguro que no existe.
+	 */
+	public boolean mightContain(String email) {
+		BloomFilter filter = current;
+		if (!enabled || filter == null || email == null) {
+			return true;
+		}
+
+		if (filter.mightContain(key(email))) {
+			maybe.increment();
+			return true;
+		}
+		absent.increment();
+		return false;
+	}
+
+	/**
+	 * Anota que el filtro dijo "puede estar" y la BD no lo encontró.
+	 */
+	public void recordFalsePositive() {
+		if (enabled && current != null) {
+			falsePositives.increment();
+		}
+	}
+
+	/**
+	 * Tasa de falsos positivos estimada (la configurada si aún no hay filtro).
+	 */
+	public double expectedFpp() {
+		BloomFilter filter = current;
+		return filter != null ? filter.expectedFpp() : fpp;
+	}
+
+	// -------------------------------------------------------------------------
+	// ALTAS
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Añade un email al filtro.
+	 *
+	 * Se llama ANTES de escribir en la BD: si la transacción falla solo queda
+	 * un falso positivo. Si hay una transacción activa, se vuelve a añadir
+	 * tras el commit, por si mientras tanto empezó una reconstrucción cuyo
+	 * recorrido no ve todavía la fila.
+	 */
+	public void add(String email) {
+		if (!enabled || email == null) {
+			return;
+		}
+
+		String key = key(email);
+		addNow(key);
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(
+				new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						addNow(key);
+					}
+				});
+		}
+	}
+
+	private void addNow(String key) {
+		// Se lee primero `building` y luego `current`: rebuild() asigna
+		// `current` antes de soltar `building`, así que nunca se pierden los dos.
+		BloomFilter next = building;
+		BloomFilter filter = current;
+
+		if (next != null) {
+			next.add(key);
+		}
+		if (filter != null) {
+			filter.add(key);
+			if (filter.expectedFpp() > 2 * fpp) {
+				rebuildAsync();
+			}
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// BAJAS Y RECONSTRUCCIÓN
+	// -------------------------------------------------------------------------
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		// Un UPDATED puede haber cambiado el email: el antiguo queda huérfano.
+		switch (event.type()) {
+			case DELETED, UPDATED -> {
+				long removed = removedSinceBuild.addAndGet(event.ids().size());
+				if (current != null && removed > loadedAtBuild / 4) {
+					rebuildAsync();
+				}
+			}
+			default -> { }
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		rebuildAsync();
+
+		if (enabled && rebuildInterval.isPositive()) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "email-filter-schedule");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long millis = rebuildInterval.toMillis();
+			scheduler.scheduleWithFixedDelay(this::rebuildAsync, millis, millis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Lanza una reconstrucción en segundo plano (si no hay otra en curso).
+	 */
+	public void rebuildAsync() {
+		if (enabled && rebuilding.compareAndSet(false, true)) {
+			Thread.ofVirtual().name("email-filter-rebuild").start(this::rebuild);
+		}
+	}
+
+	private void rebuild() {
+		long start = System.nanoTime();
+		try {
+			long users = userRepository.count();
+			BloomFilter next = new BloomFilter(Math.max(expectedInsertions, users * 2), fpp);
+
+			// Desde aquí las altas también van a `next` (ver addNow()).
+			building = next;
+			removedSinceBuild.set(0);
+
+			long loaded = readOnlyTx.execute(status -> {
+				long count = 0;
+				try (Stream<String> emails = userRepository.streamEmails(fetchSize)) {
+					for (String email : (Iterable<String>) emails::iterator) {
+						next.add(key(email));
+						count++;
+					}
+				}
+				return count;
+			});
+
+			current = next;
+			loadedAtBuild = loaded;
+
+			log.info(
+				"Filtro de emails: {} emails en {} ms ({} KB, {} hashes, fpp configurada {}, estimada {})",
+				loaded,
+				(System.nanoTime() - start) / 1_000_000,
+				next.bitCount() / 8 / 1024,
+				next.hashCount(),
+				fpp,
+				String.format(Locale.ROOT, "%.5f", next.expectedFpp()));
+		} catch (RuntimeException ex) {
+			log.warn("No se pudo construir el filtro de emails; se consultará la BD", ex);
+		} finally {
+			building = null;
+			rebuilding.set(false);
+		}
+	}
+
+	private static String key(String email) {
+		return email.trim().toLowerCase(Locale.ROOT);
+	}
+}
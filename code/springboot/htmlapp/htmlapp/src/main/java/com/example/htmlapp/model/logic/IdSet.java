@@ -0,0 +1,244 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Conjunto inmutable de IDs de usuario, guardado como un int[] ordenado y
+ * sin repetidos.
+ *
+ * Sustituye a List<Integer> en las operaciones masivas: 4 bytes por ID en
+ * lugar de un Integer (16 bytes) más su referencia, sin ordenar ni quitar
+ * repetidos en cada paso, y búsqueda binaria en contains().
+ *
+ * ----------------------------------------------------------------------------
+ * FORMATO DE TEXTO (formularios)
+ * ----------------------------------------------------------------------------
+ * Los IDs consecutivos se escriben como rangos:
+ *
+ *   {1, 2, ..., 500, 502, ..., 900, 1000}  →  "1-500,502-900,1000"
+ *
+ * Una selección de IDs seguidos ocupa lo mismo sea del tamaño que sea. Los
+ * IDs sueltos separados por comas ("3,7,12", el formato antiguo) también se
+ * aceptan: son rangos de un solo elemento.
+ *
+ * Spring convierte el parámetro `ids` a IdSet con IdSetConverter (también si
+ * llega repetido: ids=3&ids=7, como lo envían las casillas del listado).
+ *
+ * Como "1-2000000000" se expandiría a 2000 millones de IDs, parse() rechaza
+ * los conjuntos de más de MAX_SIZE elementos.
+ */
+public final class IdSet {
+
+	/** Máximo de IDs aceptados al interpretar un texto. */
+	public static final int MAX_SIZE = 1_000_000;
+
+	private static final IdSet EMPTY = new IdSet(new int[0]);
+
+	/* ordenado, sin repetidos; nunca se modifica ni sale de la clase */
+	private final int[] ids;
+
+	private IdSet(int[] sortedDistinct) {
+		this.ids = sortedDistinct;
+	}
+
+	// -------------------------------------------------------------------------
+	// CREACIÓN
+	// -------------------------------------------------------------------------
+
+	public static IdSet empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Crea el conjunto a partir de IDs en cualquier orden (con repetidos).
+	 */
+	public static IdSet of(int... ids) {
+		return ids.length == 0 ? EMPTY : new IdSet(IntStream.of(ids).sorted().distinct().toArray());
+	}
+
+	/**
+	 * Crea el conjunto a partir de una colección de IDs (se ignoran los null).
+	 */
+	public static IdSet of(Collection<Integer> ids) {
+		return of(ids.stream().filter(id -> id != null).mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Interpreta el formato de rangos ("1-500,502-900,1000").
+	 *
+	 * Se ignoran los espacios y los elementos vacíos; el orden y los
+	 * solapamientos dan igual.
+	 *
+	 * @param text Texto a interpretar (null o vacío = conjunto vacío).
+	 * @return Conjunto resultante.
+	 * @throws IllegalArgumentException si el formato no es válido, algún ID
+	 *         no es positivo o hay más de MAX_SIZE IDs.
+	 */
+	public static IdSet parse(String text) {
+		if (text == null || text.isBlank()) {
+			return EMPTY;
+		}
+
+		int[] buffer = new int[16];
+		int size = 0;
+
+		for (String item : text.split(",")) {
+			item = item.strip();
+			if (item.isEmpty()) {
+				continue;
+			}
+
+			int dash = item.indexOf('-', 1);
+			int from = parseId(dash < 0 ? item : item.substring(0, dash));
+			int to = dash < 0 ? from : parseId(item.substring(dash + 1));
+			if (to < from) {
+				throw new IllegalArgumentException("Rango de IDs no válido: " + item);
+			}
+
+			int count = to - from + 1;
+			if ((long) size + count > MAX_SIZE) {
+				throw new IllegalArgumentException(
+					"Demasiados usuarios seleccionados (máximo " + MAX_SIZE + ").");
+			}
+			if (size + count > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + count));
+			}
+			for (int k = 0; k < count; k++) {
+				buffer[size++] = from + k;
+			}
+		}
+
+		return size == 0 ? EMPTY : of(Arrays.copyOf(buffer, size));
+	}
+
+	private static int parseId(String value) {
+		try {
+			int id = Integer.parseInt(value.strip());
+			if (id <= 0) {
+				throw new IllegalArgumentException("ID de usuario no válido: " + value);
+			}
+			return id;
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("ID de usuario no válido: " + value, ex);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// CONSULTAS
+	// -------------------------------------------------------------------------
+
+	public int size() {
+		return ids.length;
+	}
+
+	public boolean isEmpty() {
+		return ids.length == 0;
+	}
+
+	public boolean contains(int id) {
+		return Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	/**
+	 * Devuelve el conjunto sin el ID indicado (p. ej. el usuario logado).
+	 *
+	 * @param id ID a quitar (null = ninguno).
+	 */
+	public IdSet without(Integer id) {
+		if (id == null) {
+			return this;
+		}
+		int index = Arrays.binarySearch(ids, id);
+		if (index < 0) {
+			return this;
+		}
+
+		int[] rest = new int[ids.length - 1];
+		System.arraycopy(ids, 0, rest, 0, index);
+		System.arraycopy(ids, index + 1, rest, index, rest.length - index);
+		return new IdSet(rest);
+	}
+
+	/** Los IDs en orden ascendente. */
+	public IntStream stream() {
+		return IntStream.of(ids);
+	}
+
+	/** Copia de los IDs en orden ascendente. */
+	public int[] toArray() {
+		return ids.clone();
+	}
+
+	/**
+	 * Vista de solo lectura de los IDs [from, to) como List<Integer>, para
+	 * pasarla como parámetro de una consulta. No copia el array: solo se
+	 * crean los Integer que se leen.
+	 *
+	 * @param from Posición inicial (incluida).
+	 * @param to   Posición final (excluida).
+	 */
+	public List<Integer> slice(int from, int to) {
+		if (from < 0 || to > ids.length || from > to) {
+			throw new IndexOutOfBoundsException("slice(" + from + ", " + to + ") de " + ids.length);
+		}
+		return new AbstractList<>() {
+			@Override
+			public Integer get(int index) {
+				return ids[from + index];
+			}
+
+			@Override
+			public int size() {
+				return to - from;
+			}
+		};
+	}
+
+	/**
+	 * Codifica el conjunto en el formato de rangos ("1-500,502-900,1000").
+	 */
+	public String encode() {
+		StringBuilder sb = new StringBuilder();
+		int i = 0;
+		while (i < ids.length) {
+			int j = i;
+			while (j + 1 < ids.length && ids[j + 1] == ids[j] + 1) {
+				j++;
+			}
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+			sb.append(ids[i]);
+			if (j > i) {
+				sb.append('-').append(ids[j]);
+			}
+			i = j + 1;
+		}
+		return sb.toString();
+	}
+
+	// -------------------------------------------------------------------------
+	// OBJECT
+	// -------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof IdSet other && Arrays.equals(ids, other.ids);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(ids);
+	}
+
+	@Override
+	public String toString() {
+		return encode();
+	}
+}
@@ -0,0 +1,161 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Limitador de intentos de login fallidos (protección contra fuerza bruta).
+ *
+ * Cuenta los fallos de login en una ventana deslizante por dos claves:
+ *  - el email atacado  → frena los ataques contra una cuenta concreta.
+ *  - la IP del cliente → frena el "credential stuffing" (muchas cuentas
+ *                        distintas desde el mismo origen).
+ *
+ * Si cualquiera de las dos supera su límite, el intento se rechaza ANTES de
+ * consultar la base de datos o calcular ningún hash.
+ *
+ * ----------------------------------------------------------------------------
+ * MEMORIA ACOTADA
+ * ----------------------------------------------------------------------------
+ * Los contadores viven en una caché Caffeine con tamaño máximo
+ * (htmlapp.login-throttle.max-keys) y caducidad por inactividad igual a la
+ * ventana: un atacante que rote emails o IPs no puede hacer crecer la
+ * memoria sin límite; como mucho expulsa contadores antiguos.
+ *
+ * ----------------------------------------------------------------------------
+ * MÉTRICAS (/actuator/metrics)
+ * ----------------------------------------------------------------------------
+ *   login.throttle.blocked?tag=key:email|ip → intentos rechazados
+ *   login.throttle.failures                 → fallos de login registrados
+ *   cache.size?tag=cache:loginThrottle      → claves vigiladas
+ */
+@Component
+public class LoginThrottle {
+
+	static final String CACHE_NAME = "loginThrottle";
+
+	private final Cache<String, SlidingWindowCounter> counters;
+
+	private final int slots;
+	private final long slotMillis;
+	private final int maxFailuresPerEmail;
+	private final int maxFailuresPerIp;
+
+	private final Counter blockedByEmail;
+	private final Counter blockedByIp;
+	private final Counter failures;
+
+	public LoginThrottle(
+		@Value("${htmlapp.login-throttle.window:15m}") Duration window,
+		@Value("${htmlapp.login-throttle.slots:15}") int slots,
+		@Value("${htmlapp.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+		@Value("${htmlapp.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+		@Value("${htmlapp.login-throttle.max-keys:100000}") long maxKeys,
+		MeterRegistry meterRegistry
+	) {
+		this.slots = slots;
+		this.slotMillis = Math.max(1, window.toMillis() / slots);
+		this.maxFailuresPerEmail = maxFailuresPerEmail;
+		this.maxFailuresPerIp = maxFailuresPerIp;
+
+		this.counters = Caffeine.newBuilder()
+			.maximumSize(maxKeys)
+			.expireAfterAccess(window)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, counters, CACHE_NAME);
+
+		this.blockedByEmail = Counter.builder("login.throttle.blocked")
+			.tag("key", "email")
+			.description("Intentos de login rechazados por exceso de fallos")
+			.register(meterRegistry);
+		this.blockedByIp = Counter.builder("login.throttle.blocked")
+			.tag("key", "ip")
+			.description("Intentos de login rechazados por exceso de fallos")
+			.register(meterRegistry);
+		this.failures = Counter.builder("login.throttle.failures")
+			.description("Fallos de login registrados")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Comprueba si se debe rechazar un intento de login.
+	 *
+	 * @param email Email introducido.
+	 * @param ip    Dirección del cliente.
+	 * La espera es lo que tardan en salir de la ventana los fallos más
+	 * antiguos hasta quedar por debajo del límite (si no hay fallos nuevos).
+	 * Con los dos límites superados, la mayor de las dos.
+	 *
+	 * @param email Email introducido.
+	 * @param ip    Dirección del cliente.
+	 * @return Tiempo de espera si está bloqueado, vacío si no.
+	 */
+	public Optional<Duration> blockedFor(String email, String ip) {
+		long now = System.currentTimeMillis();
+
+		long byEmail = waitMillis(emailKey(email), maxFailuresPerEmail, now);
+		long byIp = waitMillis(ipKey(ip), maxFailuresPerIp, now);
+
+		if (byEmail > 0) {
+			blockedByEmail.increment();
+		} else if (byIp > 0) {
+			blockedByIp.increment();
+		} else {
+			return Optional.empty();
+		}
+		return Optional.of(Duration.ofMillis(Math.max(byEmail, byIp)));
+	}
+
+	/**
+	 * Registra un login fallido para el email y la IP.
+	 */
+	public void onFailure(String email, String ip) {
+		long now = System.currentTimeMillis();
+		failures.increment();
+		counter(emailKey(email)).increment(now);
+		counter(ipKey(ip)).increment(now);
+	}
+
+	/**
+	 * Registra un login correcto: se olvidan los fallos de ese email.
+	 * Los de la IP se mantienen (pueden venir de otras cuentas).
+	 */
+	public void onSuccess(String email) {
+		counters.invalidate(emailKey(email));
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	private long waitMillis(String key, int limit, long now) {
+		SlidingWindowCounter counter = counters.getIfPresent(key);
+		return counter != null ? counter.millisUntilBelow(limit, now) : 0;
+	}
+
+	private SlidingWindowCounter counter(String key) {
+		return counters.get(key, k -> new SlidingWindowCounter(slots, slotMillis));
+	}
+
+	private static String emailKey(String email) {
+		return "e:" + String.valueOf(email).trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static String ipKey(String ip) {
+		return "ip:" + ip;
+	}
+}
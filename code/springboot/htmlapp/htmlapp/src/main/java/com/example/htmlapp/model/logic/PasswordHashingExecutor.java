@@ -0,0 +1,149 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.htmlapp.model.logic.exceptions.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool de hilos dedicado al cálculo de hashes de contraseñas.
+ *
+ * PBKDF2 y BCrypt consumen CPU a propósito (decenas o cientos de ms por
+ * hash). Si se calculan en los hilos de Tomcat, una avalancha de logins
+ * ocupa todos los hilos de peticiones y hasta las páginas más simples dejan
+ * de responder.
+ *
+ * ----------------------------------------------------------------------------
+ * CONTROL DE ADMISIÓN
+ * ----------------------------------------------------------------------------
+ * - Hilos fijos (htmlapp.password.hashing.threads, 0 = nº de núcleos):
+ *   nunca hay más hashes en paralelo que núcleos dedicados.
+ * - Cola acotada (htmlapp.password.hashing.queue-capacity): si está llena,
+ *   la petición se rechaza AL MOMENTO con ServiceOverloadedException
+ *   (HTTP 503 + Retry-After) en vez de esperar indefinidamente.
+ *
+ * ----------------------------------------------------------------------------
+ * MÉTRICAS (/actuator/metrics)
+ * ----------------------------------------------------------------------------
+ *   password.hashing.queue.depth  → tareas esperando en la cola
+ *   password.hashing.active       → hilos calculando un hash
+ *   password.hashing.wait         → tiempo en cola antes de empezar
+ *   password.hashing.duration     → tiempo de cálculo del hash
+ *   password.hashing.rejected     → peticiones rechazadas por cola llena
+ *
+ * Si `wait` crece y `active` está siempre al máximo, faltan núcleos; si
+ * `rejected` sube con la cola casi vacía, la cola es demasiado pequeña.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+	private final ThreadPoolExecutor pool;
+	private final Duration retryAfter;
+
+	private final Timer waitTimer;
+	private final Timer runTimer;
+	private final Counter rejected;
+
+	public PasswordHashingExecutor(
+		@Value("${htmlapp.password.hashing.threads:0}") int threads,
+		@Value("${htmlapp.password.hashing.queue-capacity:64}") int queueCapacity,
+		@Value("${htmlapp.password.hashing.retry-after:2s}") Duration retryAfter,
+		MeterRegistry meterRegistry
+	) {
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+		this.pool = new ThreadPoolExecutor(
+			size, size,
+			0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity),
+			Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+			new ThreadPoolExecutor.AbortPolicy()
+		);
+		this.retryAfter = retryAfter;
+
+		Gauge.builder("password.hashing.queue.depth", pool, p -> p.getQueue().size())
+			.description("Tareas de hash esperando en la cola")
+			.register(meterRegistry);
+		Gauge.builder("password.hashing.active", pool, ThreadPoolExecutor::getActiveCount)
+			.description("Hilos calculando un hash")
+			.register(meterRegistry);
+		Gauge.builder("password.hashing.threads", pool, ThreadPoolExecutor::getMaximumPoolSize)
+			.description("Tamaño del pool de hash")
+			.register(meterRegistry);
+
+		this.waitTimer = Timer.builder("password.hashing.wait")
+			.description("Tiempo en cola antes de calcular el hash")
+			.publishPercentiles(0.5, 0.99)
+			.register(meterRegistry);
+		this.runTimer = Timer.builder("password.hashing.duration")
+			.description("Tiempo de cálculo del hash")
+			.publishPercentiles(0.5, 0.99)
+			.register(meterRegistry);
+		this.rejected = Counter.builder("password.hashing.rejected")
+			.description("Peticiones rechazadas por cola llena")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Ejecuta una tarea de hash en el pool y espera su resultado.
+	 *
+	 * @param task Cálculo a ejecutar (hash o verificación).
+	 * @return Resultado de la tarea.
+	 * @throws ServiceOverloadedException si la cola está llena.
+	 */
+	public <T> T call(Supplier<T> task) {
+		long enqueued = System.nanoTime();
+
+		Future<T> future;
+		try {
+			future = pool.submit(() -> {
+				waitTimer.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+				return runTimer.record(task);
+			});
+		} catch (RejectedExecutionException ex) {
+			rejected.increment();
+			throw new ServiceOverloadedException(
+				"El servidor está atendiendo demasiados inicios de sesión. "
+					+ "Inténtelo de nuevo en unos segundos.",
+				retryAfter);
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Cálculo de hash interrumpido.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			if (ex.getCause() instanceof Error err) {
+				throw err;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
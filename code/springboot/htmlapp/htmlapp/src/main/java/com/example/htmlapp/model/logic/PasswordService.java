@@ -2,13 +2,22 @@
 
 package com.example.htmlapp.model.logic;
 
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.htmlapp.model.enums.PasswordAlgorithm;
+import com.example.htmlapp.model.logic.passwords.BCryptPasswordHasher;
+import com.example.htmlapp.model.logic.passwords.PasswordHasher;
+import com.example.htmlapp.model.logic.passwords.Pbkdf2PasswordHasher;
+import com.example.htmlapp.model.logic.passwords.Sha256PasswordHasher;
+
 /**
  * Servicio encargado de la gestión de contraseñas:
  * generación de salts, hashing y verificación.
@@ -17,28 +26,113 @@ import org.springframework.stereotype.Service;
  * RESPONSABILIDADES
  * ----------------------------------------------------------------------------
  * - Generar salts aleatorios seguros (SecureRandom).
- * - Generar el hash de una contraseña combinada con su salt.
- * - Verificar si una contraseña en texto plano coincide con el hash almacenado.
+ * - Generar el hash de una contraseña con el algoritmo configurado.
+ * - Verificar una contraseña contra cualquier hash guardado, sea cual sea
+ *   su algoritmo.
+ * - Indicar si un hash guardado debe recalcularse (needsRehash).
  *
  * ----------------------------------------------------------------------------
- * SOBRE EL ALGORITMO DE HASHING
+ * FORMATO DE LOS HASHES
  * ----------------------------------------------------------------------------
- * Se usa SHA-256 como algoritmo de hash, combinando la contraseña
- * y el salt:  hash = SHA256(password + salt)
+ * El valor de `users.password_hash` describe cómo se generó:
+ *
+ *   SHA256 → Base64(SHA256(password + salt))         (formato original)
+ *   PBKDF2 → $pbkdf2-sha256$i=310000$<salt>$<hash>
+ *   BCRYPT → $2a$12$<salt><hash>
+ *
+ * Los hashes NUEVOS usan el algoritmo y el coste configurados:
+ *
+ *   htmlapp.password.algorithm         (SHA256 | PBKDF2 | BCRYPT)
+ *   htmlapp.password.pbkdf2.iterations
+ *   htmlapp.password.bcrypt.cost
  *
- * El resultado se codifica en Base64 para facilitar su almacenamiento
- * en base de datos (campo VARCHAR).
+ * Los hashes existentes se siguen verificando con sus propios parámetros.
+ * AuthService recalcula el hash tras un login correcto cuando
+ * needsRehash() lo indica, así que cambiar el coste no exige migraciones.
  *
  * ----------------------------------------------------------------------------
- * CONSIDERACIONES DE SEGURIDAD
+ * CONCURRENCIA
  * ----------------------------------------------------------------------------
- * - SHA-256 es un hash rápido; para entornos de producción se recomienda
- *   usar algoritmos más resistentes a fuerza bruta (como bcrypt, scrypt o Argon2).
- * - En este contexto educativo se mantiene SHA-256 por simplicidad y portabilidad.
+ * El servicio es un singleton usado por todas las peticiones a la vez. Usa un
+ * único SecureRandom (DRBG) compartido, thread-safe y no bloqueante; cada
+ * algoritmo gestiona su propio estado por hilo si lo necesita.
+ *
+ * Los cálculos de hash y las verificaciones se ejecutan en un pool acotado
+ * (PasswordHashingExecutor). Si está saturado se lanza
+ * ServiceOverloadedException (503 + Retry-After).
  */
 @Service
 public class PasswordService {
 
+	private static final int SALT_BYTES = 16;
+
+	/** Generador aleatorio compartido (DRBG: thread-safe y no bloqueante). */
+	private static final SecureRandom RANDOM = createRandom();
+
+	/** Algoritmos conocidos; el primero que reconoce un hash lo verifica. */
+	private final List<PasswordHasher> hashers;
+
+	/** Algoritmo usado para los hashes nuevos. */
+	private final PasswordHasher current;
+
+	/** Pool dedicado para los hashes (null = en el hilo que llama). */
+	private final PasswordHashingExecutor executor;
+
+	/**
+	 * Constructor usado por Spring, con la configuración de application.yml.
+	 *
+	 * Los hashes se calculan en el pool dedicado PasswordHashingExecutor, no
+	 * en los hilos de Tomcat.
+	 *
+	 * @param algorithm  Algoritmo para los hashes nuevos.
+	 * @param iterations Iteraciones de PBKDF2.
+	 * @param cost       Coste de BCrypt.
+	 * @param executor   Pool de hilos para los hashes.
+	 */
+	@Autowired
+	public PasswordService(
+		@Value("${htmlapp.password.algorithm:PBKDF2}") PasswordAlgorithm algorithm,
+		@Value("${htmlapp.password.pbkdf2.iterations:310000}") int iterations,
+		@Value("${htmlapp.password.bcrypt.cost:12}") int cost,
+		PasswordHashingExecutor executor
+	) {
+		this.executor = executor;
+		this.hashers = List.of(
+			new Pbkdf2PasswordHasher(iterations),
+			new BCryptPasswordHasher(cost, RANDOM),
+			new Sha256PasswordHasher()
+		);
+		this.current = hashers.stream()
+			.filter(h -> h.algorithm() == algorithm)
+			.findFirst()
+			.orElseThrow();
+	}
+
+	/**
+	 * Constructor sin pool de hilos: los hashes se calculan en el hilo que
+	 * llama (herramientas de consola y benchmarks).
+	 *
+	 * @param algorithm  Algoritmo para los hashes nuevos.
+	 * @param iterations Iteraciones de PBKDF2.
+	 * @param cost       Coste de BCrypt.
+	 */
+	public PasswordService(PasswordAlgorithm algorithm, int iterations, int cost) {
+		this(algorithm, iterations, cost, null);
+	}
+
+	/**
+	 * Constructor con los valores por defecto (para las herramientas de
+	 * consola de com.example.htmlapp.tools, que no arrancan Spring).
+	 */
+	public PasswordService() {
+		this(PasswordAlgorithm.PBKDF2, 310_000, 12);
+	}
+
+	/** Algoritmo usado para los hashes nuevos. */
+	public PasswordAlgorithm getAlgorithm() {
+		return current.algorithm();
+	}
+
 	// -------------------------------------------------------------------------
 	// GENERACIÓN DE SALTS
 	// -------------------------------------------------------------------------
@@ -49,8 +143,8 @@ public class PasswordService {
 	 * @return Salt aleatorio de 16 bytes, codificado en Base64.
 	 */
 	public String generateSalt() {
-		byte[] salt = new byte[16];
-		new SecureRandom().nextBytes(salt);
+		byte[] salt = new byte[SALT_BYTES];
+		RANDOM.nextBytes(salt);
 		return Base64.getEncoder().encodeToString(salt);
 	}
 
@@ -59,20 +153,14 @@ public class PasswordService {
 	// -------------------------------------------------------------------------
 
 	/**
-	 * Genera el hash de una contraseña combinada con su salt.
+	 * Genera el hash de una contraseña con el algoritmo configurado.
 	 *
 	 * @param password Contraseña en texto plano.
-	 * @param salt     Salt asociado al usuario.
-	 * @return Hash resultante en Base64.
+	 * @param salt     Salt asociado al usuario (generateSalt()).
+	 * @return Hash autodescriptivo, listo para `users.password_hash`.
 	 */
 	public String hashPassword(String password, String salt) {
-		try {
-			MessageDigest digest = MessageDigest.getInstance("SHA-256");
-			byte[] hash = digest.digest((password + salt).getBytes());
-			return Base64.getEncoder().encodeToString(hash);
-		} catch (NoSuchAlgorithmException e) {
-			throw new RuntimeException("Algoritmo SHA-256 no disponible.", e);
-		}
+		return run(() -> current.hash(password, salt));
 	}
 
 	// -------------------------------------------------------------------------
@@ -82,14 +170,60 @@ public class PasswordService {
 	/**
 	 * Verifica si una contraseña coincide con el hash almacenado.
 	 *
+	 * El algoritmo se deduce del propio hash. Todas las comparaciones se
+	 * hacen en tiempo constante.
+	 *
 	 * @param rawPassword  Contraseña introducida por el usuario (texto plano).
 	 * @param salt         Salt almacenado en la base de datos.
 	 * @param storedHash   Hash almacenado en la base de datos.
 	 * @return true si la contraseña es válida, false si no coincide.
 	 */
 	public boolean verifyPassword(String rawPassword, String salt, String storedHash) {
-		String computedHash = hashPassword(rawPassword, salt);
-		return computedHash.equals(storedHash);
+		if (storedHash == null) {
+			return false;
+		}
+		PasswordHasher hasher = hasherFor(storedHash);
+		return run(() -> hasher.verify(rawPassword, salt, storedHash));
+	}
+
+	/**
+	 * Indica si un hash guardado usa un algoritmo o un coste distintos de los
+	 * configurados, y por tanto debería recalcularse en el próximo login.
+	 *
+	 * @param storedHash Hash almacenado en la base de datos.
+	 * @return true si conviene recalcularlo.
+	 */
+	public boolean needsRehash(String storedHash) {
+		if (storedHash == null) {
+			return false;
+		}
+		PasswordHasher hasher = hasherFor(storedHash);
+		return hasher != current || hasher.needsRehash(storedHash);
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	private <T> T run(Supplier<T> task) {
+		return executor != null ? executor.call(task) : task.get();
+	}
+
+	private PasswordHasher hasherFor(String storedHash) {
+		for (PasswordHasher hasher : hashers) {
+			if (hasher.supports(storedHash)) {
+				return hasher;
+			}
+		}
+		throw new IllegalStateException("Formato de hash de contraseña desconocido.");
+	}
+
+	private static SecureRandom createRandom() {
+		try {
+			return SecureRandom.getInstance("DRBG");
+		} catch (NoSuchAlgorithmException e) {
+			return new SecureRandom();
+		}
 	}
 }
 
@@ -105,9 +239,13 @@ NOTAS PEDAGÓGICAS
 
 2. ALGORITMO DE HASH
 --------------------
-   SHA-256 ofrece una base sólida y fácil de entender. En un entorno real
-   debería reemplazarse por bcrypt o Argon2 para resistir ataques de fuerza
-   bruta.
+   SHA-256 es rápido: un atacante con la base de datos puede probar miles
+   de millones de contraseñas por segundo. PBKDF2 y BCrypt son lentos a
+   propósito y su coste se puede subir con el tiempo.
+
+   Como cada hash indica su algoritmo y su coste, se pueden mezclar en la
+   misma tabla: los antiguos se verifican igual que siempre y se recalculan
+   con el algoritmo actual en cuanto el usuario inicia sesión.
 
 3. USO TÍPICO
 --------------
@@ -117,8 +255,29 @@ NOTAS PEDAGÓGICAS
 
    - En login o cambio de contraseña:
          boolean ok = passwordService.verifyPassword(plainPassword, salt, hash);
+         if (ok && passwordService.needsRehash(hash)) { ... recalcular ... }
+
+4. RENDIMIENTO
+---------------
+   Cada login hace un hash, así que este servicio está en el camino crítico.
+   Con PBKDF2/BCrypt el coste configurado domina el tiempo del login (y se
+   elige a propósito); en el formato SHA-256:
+   - `new SecureRandom()` en cada llamada puede bloquearse esperando
+     entropía; un DRBG compartido no.
+   - `MessageDigest.getInstance()` busca el proveedor cada vez; con un
+     digest por hilo solo se hace una vez.
+   - `(password + salt).getBytes()` crea dos objetos temporales y depende
+     del charset de la plataforma; Sha256PasswordHasher escribe UTF-8 en un
+     buffer reutilizado. (Con Java 18+ el charset por defecto ya es UTF-8, así que
+     los hashes existentes siguen siendo válidos.)
+   - `equals()` termina en el primer carácter distinto y revela por tiempo
+     cuánto coincide; la comparación en tiempo constante no.
+
+   El perfil Maven `jmh` (src/jmh/java) mide operaciones/s y bytes
+   asignados por operación:
+         mvn -Pjmh compile exec:exec
 
-4. OBJETIVO PEDAGÓGICO
+5. OBJETIVO PEDAGÓGICO
 -----------------------
    Mostrar un flujo completo de autenticación con salts y hash seguro,
    ilustrando buenas prácticas sin añadir complejidad innecesaria.
@@ -2,10 +2,15 @@
 
 package com.example.htmlapp.model.logic;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.example.htmlapp.model.db.User;
-import com.example.htmlapp.model.db.UserRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,13 +30,23 @@ import lombok.RequiredArgsConstructor;
  *
  * De este modo se mantiene una separación clara entre
  * autenticación (identificar al usuario) y autorización (validar permisos).
+ *
+ * ----------------------------------------------------------------------------
+ * CACHÉ
+ * ----------------------------------------------------------------------------
+ * El usuario destino se obtiene de UserSnapshotCache (petición + caché
+ * compartida de caducidad corta) y las decisiones se recuerdan durante la
+ * petición: una vista cuesta como mucho una consulta del usuario.
  */
 @Service
 @RequiredArgsConstructor
 public class PermissionsService {
 
+	private static final String DECISIONS_ATTRIBUTE =
+		PermissionsService.class.getName() + ".decisions";
+
 	private final AuthService authService;
-	private final UserRepository userRepository;
+	private final UserSnapshotCache userSnapshotCache;
 
 	// -------------------------------------------------------------------------
 	// PERMISOS GENERALES
@@ -43,7 +58,7 @@ public class PermissionsService {
 	 * @return Usuario autenticado.
 	 * @throws SecurityException si no hay sesión activa.
 	 */
-	public User checkLoggedUserPermission() {
+	public SessionUser checkLoggedUserPermission() {
 		return authService.getUser().orElseThrow(
 			() -> new SecurityException("Debe iniciar sesión para continuar.")
 		);
@@ -55,9 +70,9 @@ public class PermissionsService {
 	 * @return Usuario autenticado (que es admin).
 	 * @throws SecurityException si el usuario no tiene permisos de admin.
 	 */
-	public User checkAdminPermission() {
-		User user = checkLoggedUserPermission();
-		if (!user.isAdmin()) {
+	public SessionUser checkAdminPermission() {
+		SessionUser user = checkLoggedUserPermission();
+		if (!user.admin()) {
 			throw new SecurityException("No tiene permisos de administrador.");
 		}
 		return user;
@@ -72,13 +87,14 @@ public class PermissionsService {
 	 * @throws SecurityException si el usuario no tiene permisos de admin.
 	 */
 	public User checkOtherAdminPermission(int targetId) {
-		User target = userRepository.findById(targetId).orElseThrow(
-			() -> new SecurityException("El usuario solicitado no existe.")
-		);
+		User target = findTarget(targetId);
 
-		User current = checkLoggedUserPermission();
+		boolean allowed = decide("otherAdmin:" + targetId, () -> {
+			SessionUser current = checkLoggedUserPermission();
+			return current.admin() && current.id() != targetId;
+		});
 
-		if (authService.isAdmin() && !current.getId().equals(targetId)) {
+		if (allowed) {
 			return target;
 		}
 
@@ -102,13 +118,14 @@ public class PermissionsService {
 	 * @throws SecurityException si no hay permiso o el usuario no existe.
 	 */
 	public User checkAdminOrLoggedUserPermission(int targetId) {
-		User target = userRepository.findById(targetId).orElseThrow(
-			() -> new SecurityException("El usuario solicitado no existe.")
-		);
+		User target = findTarget(targetId);
 
-		User current = checkLoggedUserPermission();
+		boolean allowed = decide("adminOrSelf:" + targetId, () -> {
+			SessionUser current = checkLoggedUserPermission();
+			return current.admin() || current.id() == targetId;
+		});
 
-		if (authService.isAdmin() || current.getId().equals(targetId)) {
+		if (allowed) {
 			return target;
 		}
 
@@ -131,6 +148,45 @@ public class PermissionsService {
 		return authService.isAdmin() ||
 			authService.getUserId().map(id -> id.equals(targetId)).orElse(false);
 	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Carga el usuario destino (copia, desde UserSnapshotCache).
+	 */
+	private User findTarget(int targetId) {
+		return userSnapshotCache.findById(targetId).orElseThrow(
+			() -> new SecurityException("El usuario solicitado no existe.")
+		);
+	}
+
+	/**
+	 * Calcula una decisión de permiso o la reutiliza si ya se tomó en esta
+	 * petición. Fuera de una petición HTTP se calcula siempre.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean decide(String key, BooleanSupplier rule) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return rule.getAsBoolean();
+		}
+
+		Object map = attributes.getAttribute(DECISIONS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (map == null) {
+			map = new HashMap<String, Boolean>();
+			attributes.setAttribute(DECISIONS_ATTRIBUTE, map, RequestAttributes.SCOPE_REQUEST);
+		}
+
+		Map<String, Boolean> decisions = (Map<String, Boolean>) map;
+		Boolean decision = decisions.get(key);
+		if (decision == null) {
+			decision = rule.getAsBoolean();
+			decisions.put(key, decision);
+		}
+		return decision;
+	}
 }
 
 /*
@@ -154,13 +210,21 @@ NOTAS PEDAGÓGICAS
 - `checkAdminOrLoggedUserPermission(id)` para vistas de perfil.
 - `canAccessUser(id)` puede usarse en vistas Thymeleaf (condicionales).
 
-4. SIMPLIFICACIÓN DEL CÓDIGO
+4. UNA CONSULTA POR VISTA
+--------------------------
+Antes cada comprobación hacía `findById(targetId)`. Ahora el usuario
+destino sale de UserSnapshotCache y la decisión se guarda como atributo
+de la petición: si varias partes de la misma petición preguntan lo mismo,
+no se repite ni la consulta ni el cálculo. Los cambios en el usuario
+(UserChangedEvent) invalidan su instantánea tras el commit.
+
+5. SIMPLIFICACIÓN DEL CÓDIGO
 ------------------------------
 Los métodos `checkDeletePermission()` y `checkChangePasswordPermission()`
 se eliminaron por redundantes, ya que `checkAdminOrLoggedUserPermission()`
 cubre ambos escenarios con la misma semántica.
 
-5. OBJETIVO PEDAGÓGICO
+6. OBJETIVO PEDAGÓGICO
 ------------------------
 Este servicio enseña cómo:
  - Centralizar la verificación de permisos en un único punto.
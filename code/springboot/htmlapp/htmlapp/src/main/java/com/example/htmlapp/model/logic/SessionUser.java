@@ -0,0 +1,60 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.io.Serializable;
+
+import com.example.htmlapp.model.db.User;
+
+/**
+ * Usuario autenticado tal y como se guarda en la sesión HTTP.
+ *
+ * Solo contiene lo que necesitan los controladores y las plantillas:
+ *
+ *   id, email, fullName, admin, version
+ *
+ * Antes se guardaba la entidad User completa, con salt y hash de la
+ * contraseña (que no hace falta tener en memoria por cada sesión) y el
+ * resto de campos de la tabla. Con cientos de miles de sesiones esa
+ * diferencia se multiplica, igual que el coste de serializarlas si las
+ * sesiones se persisten o se replican. La herramienta tools/SessionFootprint
+ * mide los bytes por sesión de ambas variantes.
+ *
+ * Es inmutable: tras cualquier cambio se sustituye por uno nuevo
+ * (AuthService.refreshUser()). `version` es la versión de la fila de la
+ * que se copió y permite saber si los datos han quedado anticuados
+ * (UserVersionRegistry, AuthService.getUser()).
+ *
+ * En Thymeleaf se usa igual que antes:
+ *     <span th:text="${session.user.fullName}">Usuario</span>
+ *     <span th:if="${session.user.admin}">[ADMIN]</span>
+ *
+ * @param id       ID del usuario.
+ * @param email    Email.
+ * @param fullName Nombre completo (puede ser null).
+ * @param admin    true si es administrador.
+ * @param version  Versión de la fila users en el momento de la copia.
+ */
+public record SessionUser(
+	int id,
+	String email,
+	String fullName,
+	boolean admin,
+	long version
+) implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Crea el usuario de sesión a partir de la entidad.
+	 */
+	public static SessionUser of(User user) {
+		return new SessionUser(
+			user.getId(),
+			user.getEmail(),
+			user.getFullName(),
+			user.isAdmin(),
+			user.getVersion()
+		);
+	}
+}
@@ -0,0 +1,121 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de ventana deslizante sin bloqueos (lock-free).
+ *
+ * La ventana se divide en `slots` tramos de `slotMillis` milisegundos. Cada
+ * tramo es un único long que guarda, empaquetados:
+ *
+ *   [ nº de tramo (44 bits) | contador (20 bits) ]
+ *
+ * Al incrementar, si el tramo guardado es antiguo se reinicia a 1; si es el
+ * actual, se suma 1. Todo con compareAndSet sobre ese long: varios hilos
+ * pueden contar a la vez sin synchronized ni locks, y no hace falta ningún
+ * hilo de limpieza porque los tramos caducados se ignoran al sumar.
+ *
+ * El total es la suma de los tramos que siguen dentro de la ventana, así que
+ * la ventana "se desliza" tramo a tramo.
+ *
+ * Se usa en LoginThrottle (fallos de login) y en BoundedSessionManager
+ * (tasa de expulsión de sesiones).
+ */
+public final class SlidingWindowCounter {
+
+	private static final int COUNT_BITS = 20;
+	private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+	private final AtomicLongArray slots;
+	private final long slotMillis;
+
+	/**
+	 * @param slots      Número de tramos de la ventana.
+	 * @param slotMillis Duración de cada tramo en milisegundos.
+	 */
+	public SlidingWindowCounter(int slots, long slotMillis) {
+		this.slots = new AtomicLongArray(slots);
+		this.slotMillis = slotMillis;
+	}
+
+	/**
+	 * Suma 1 en el tramo actual.
+	 *
+	 * @param nowMillis Instante actual.
+	 * @return Total de la ventana tras el incremento.
+	 */
+	public long increment(long nowMillis) {
+		long epoch = nowMillis / slotMillis;
+		int index = (int) (epoch % slots.length());
+
+		while (true) {
+			long current = slots.get(index);
+			long next = (current >>> COUNT_BITS) == epoch
+				? pack(epoch, Math.min((current & COUNT_MASK) + 1, COUNT_MASK))
+				: pack(epoch, 1);
+			if (slots.compareAndSet(index, current, next)) {
+				break;
+			}
+		}
+		return sum(nowMillis);
+	}
+
+	/**
+	 * Total de la ventana que termina en `nowMillis`.
+	 */
+	public long sum(long nowMillis) {
+		long epoch = nowMillis / slotMillis;
+		int length = slots.length();
+
+		long total = 0;
+		for (int i = 0; i < length; i++) {
+			long value = slots.get(i);
+			if (epoch - (value >>> COUNT_BITS) < length) {
+				total += value & COUNT_MASK;
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Tiempo que falta para que el total de la ventana baje de `limit` si no
+	 * hay más incrementos: los tramos caducan del más antiguo al más nuevo.
+	 *
+	 * @param limit     Límite a comparar con el total.
+	 * @param nowMillis Instante actual.
+	 * @return Milisegundos de espera (0 si el total ya es menor que `limit`).
+	 */
+	public long millisUntilBelow(long limit, long nowMillis) {
+		long epoch = nowMillis / slotMillis;
+		int length = slots.length();
+
+		// Los valores empaquetados se ordenan por nº de tramo
+		long[] live = new long[length];
+		int count = 0;
+		long total = 0;
+		for (int i = 0; i < length; i++) {
+			long value = slots.get(i);
+			if (epoch - (value >>> COUNT_BITS) < length) {
+				live[count++] = value;
+				total += value & COUNT_MASK;
+			}
+		}
+		Arrays.sort(live, 0, count);
+
+		for (int i = 0; i < count && total >= limit; i++) {
+			total -= live[i] & COUNT_MASK;
+			if (total < limit) {
+				long expiresAt = ((live[i] >>> COUNT_BITS) + length) * slotMillis;
+				return Math.max(0, expiresAt - nowMillis);
+			}
+		}
+		return 0;
+	}
+
+	private static long pack(long epoch, long count) {
+		return (epoch << COUNT_BITS) | count;
+	}
+}
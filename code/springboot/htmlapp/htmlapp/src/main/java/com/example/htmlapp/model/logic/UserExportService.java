@@ -0,0 +1,222 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.htmlapp.model.db.UserListFilter;
+import com.example.htmlapp.model.db.UserListRow;
+import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.db.UserSpecifications;
+import com.example.htmlapp.model.enums.ExportFormat;
+import com.example.htmlapp.model.enums.SortDirection;
+import com.example.htmlapp.model.enums.UserOrderField;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Servicio de exportación del listado de usuarios (CSV / NDJSON).
+ *
+ * ----------------------------------------------------------------------------
+ * MEMORIA CONSTANTE
+ * ----------------------------------------------------------------------------
+ * Las filas se leen de la BD con un Stream (cursor de servidor, en bloques
+ * de `fetch-size` filas) y se escriben en la respuesta según llegan. En
+ * ningún momento existe una lista con todos los usuarios, así que el consumo
+ * de memoria es el mismo con 1.000 filas que con 10 millones.
+ *
+ * El método es @Transactional(readOnly = true): la transacción desactiva el
+ * autocommit de la conexión, requisito de pgjdbc para usar el cursor.
+ *
+ * ----------------------------------------------------------------------------
+ * VALIDACIÓN
+ * ----------------------------------------------------------------------------
+ * Se aplican las mismas reglas que en el listado (búsqueda libre de al menos
+ * MIN_SEARCH_LENGTH caracteres): sin ellas, una exportación con "a" recorrería
+ * la tabla entera sin índice. El controlador llama a checkFilter() ANTES de
+ * devolver el StreamingResponseBody; una vez empezada la descarga ya se ha
+ * enviado el 200 y no se puede responder con un 400.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+	/** Generador JSON que separa cada objeto raíz con un salto de línea. */
+	private static final JsonFactory NDJSON_FACTORY = new JsonFactoryBuilder()
+		.rootValueSeparator("\n")
+		.build();
+
+	private static final String CSV_HEADER =
+		"id,email,full_name,is_admin,creation_datetime\n";
+
+	private final UserRepository userRepository;
+
+	/** Filas por viaje a la BD (htmlapp.export.fetch-size). */
+	@Value("${htmlapp.export.fetch-size:1000}")
+	private int fetchSize;
+
+	/**
+	 * Comprueba que el filtro es válido para exportar.
+	 *
+	 * @param filter Criterios de filtrado.
+	 * @throws IllegalArgumentException si la búsqueda es demasiado corta.
+	 */
+	public void checkFilter(UserListFilter filter) {
+		UserListService.checkSearchLength(filter);
+	}
+
+	/**
+	 * Escribe en `out` todos los usuarios que cumplen el filtro, en el orden
+	 * indicado y en el formato pedido.
+	 *
+	 * @param filter    Criterios de filtrado.
+	 * @param orderBy   Campo de ordenación.
+	 * @param direction Dirección del orden.
+	 * @param format    Formato de salida.
+	 * @param out       Flujo de salida (cuerpo de la respuesta HTTP).
+	 * @throws IOException si falla la escritura (p. ej. el cliente corta).
+	 * @throws IllegalArgumentException si la búsqueda es demasiado corta.
+	 */
+	@Transactional(readOnly = true)
+	public void export(
+		UserListFilter filter,
+		UserOrderField orderBy,
+		SortDirection direction,
+		ExportFormat format,
+		OutputStream out
+	) throws IOException {
+		checkFilter(filter);
+
+		Writer writer = new BufferedWriter(
+			new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+		try (Stream<UserListRow> rows = userRepository.streamRows(
+				UserSpecifications.matching(filter), orderBy, direction, fetchSize)) {
+
+			switch (format) {
+				case CSV -> writeCsv(rows, writer);
+				case NDJSON -> writeNdjson(rows, writer);
+			}
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+
+		writer.flush();
+	}
+
+	// -------------------------------------------------------------------------
+	// CSV
+	// -------------------------------------------------------------------------
+
+	private void writeCsv(Stream<UserListRow> rows, Writer writer) throws IOException {
+		writer.write(CSV_HEADER);
+
+		rows.forEach(row -> {
+			try {
+				writer.write(String.valueOf(row.id()));
+				writer.write(',');
+				writer.write(csv(row.email()));
+				writer.write(',');
+				writer.write(csv(row.fullName()));
+				writer.write(',');
+				writer.write(row.admin() ? "true" : "false");
+				writer.write(',');
+				writer.write(row.creationTimestamp() != null
+					? row.creationTimestamp().toString() : "");
+				writer.write('\n');
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+	}
+
+	/**
+	 * Escapa un campo de texto CSV (RFC 4180).
+	 *
+	 * Además, antepone una comilla simple a los valores que empiezan por
+	 * = + - @ para que una hoja de cálculo no los interprete como fórmulas.
+	 */
+	static String csv(String value) {
+		if (value == null || value.isEmpty()) {
+			return "";
+		}
+
+		char first = value.charAt(0);
+		if (first == '=' || first == '+' || first == '-' || first == '@') {
+			value = "'" + value;
+		}
+
+		if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+				|| value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+		return value;
+	}
+
+	// -------------------------------------------------------------------------
+	// NDJSON
+	// -------------------------------------------------------------------------
+
+	private void writeNdjson(Stream<UserListRow> rows, Writer writer) throws IOException {
+		// El generador no cierra el Writer: lo gestiona export()
+		try (JsonGenerator json = NDJSON_FACTORY.createGenerator(writer)) {
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+			rows.forEach(row -> {
+				try {
+					json.writeStartObject();
+					json.writeNumberField("id", row.id());
+					json.writeStringField("email", row.email());
+					json.writeStringField("fullName", row.fullName());
+					json.writeBooleanField("admin", row.admin());
+					json.writeStringField("creationTimestamp",
+						row.creationTimestamp() != null
+							? row.creationTimestamp().toString() : null);
+					json.writeEndObject();
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+
+			json.writeRaw('\n');
+		}
+	}
+}
+
+/*
+===============================================================================
+NOTAS PEDAGÓGICAS
+===============================================================================
+1. StreamingResponseBody + Stream<UserListRow>
+----------------------------------------------
+El controlador devuelve un StreamingResponseBody que llama a export() desde
+un hilo aparte. Como export() es un método de un bean de Spring, la llamada
+pasa por el proxy transaccional y la transacción se abre en ESE hilo, que es
+donde se consume el Stream.
+
+2. POR QUÉ NO getResultList()
+-----------------------------
+Con una lista, la JVM necesitaría memoria para todas las filas a la vez;
+con 10 millones de usuarios eso supone varios GB. El Stream mantiene en
+memoria solo el bloque actual de `fetch-size` filas.
+
+3. EXCEPCIONES DENTRO DE LAMBDAS
+---------------------------------
+forEach() no admite excepciones comprobadas, así que las IOException se
+envuelven en UncheckedIOException y se desenvuelven al salir del bucle.
+===============================================================================
+*/
@@ -0,0 +1,144 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.htmlapp.model.db.UserListFilter;
+import com.example.htmlapp.model.db.UserListPage;
+import com.example.htmlapp.model.enums.SortDirection;
+import com.example.htmlapp.model.enums.UserOrderField;
+import com.example.htmlapp.model.logic.events.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de lectura de las páginas del listado de usuarios.
+ *
+ * Guarda cada página ya calculada bajo la clave
+ *   (filtro, campo de orden, dirección, cursor, tamaño de página)
+ * para que las recargas repetidas de /userlist/list no vuelvan a consultar
+ * la base de datos.
+ *
+ * ----------------------------------------------------------------------------
+ * LÍMITES
+ * ----------------------------------------------------------------------------
+ * - Tamaño máximo (htmlapp.userlist.cache.max-size): al superarlo, Caffeine
+ *   expulsa las entradas menos útiles (política W-TinyLFU).
+ * - Caducidad (htmlapp.userlist.cache.ttl): ninguna página vive más de ese
+ *   tiempo, aunque nadie la invalide (p. ej. cambios hechos directamente en
+ *   la BD desde fuera de la aplicación).
+ *
+ * ----------------------------------------------------------------------------
+ * INVALIDACIÓN
+ * ----------------------------------------------------------------------------
+ * Cualquier cambio en un usuario puede mover filas entre páginas, así que
+ * un cambio visible en el listado invalida todas las páginas. Los cambios
+ * que no afectan al listado (contraseña) no invalidan nada.
+ *
+ * La invalidación ocurre tras el commit (UserChangedEvent). Además, cada
+ * clave incluye una "generación": una carga que empezó antes de una
+ * invalidación se guarda con la generación antigua y nunca se vuelve a leer.
+ *
+ * ----------------------------------------------------------------------------
+ * MÉTRICAS
+ * ----------------------------------------------------------------------------
+ * Aciertos, fallos y expulsiones se publican en Micrometer:
+ *   /actuator/metrics/cache.gets?tag=cache:userListPages&tag=result:hit
+ *   /actuator/metrics/cache.gets?tag=cache:userListPages&tag=result:miss
+ *   /actuator/metrics/cache.evictions?tag=cache:userListPages
+ */
+@Slf4j
+@Component
+public class UserListCache {
+
+	static final String CACHE_NAME = "userListPages";
+
+	/** Clave de la caché: todo lo que determina el contenido de una página. */
+	private record Key(
+		long generation,
+		UserListFilter filter,
+		UserOrderField orderBy,
+		SortDirection direction,
+		String after,
+		String before,
+		int size
+	) {}
+
+	private final Cache<Key, UserListPage> cache;
+	private final AtomicLong generation = new AtomicLong();
+
+	public UserListCache(
+		@Value("${htmlapp.userlist.cache.max-size:1000}") long maxSize,
+		@Value("${htmlapp.userlist.cache.ttl:30s}") Duration ttl,
+		MeterRegistry meterRegistry
+	) {
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterWrite(ttl)
+			.recordStats()
+			.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Devuelve la página cacheada o la calcula con `loader` y la guarda.
+	 *
+	 * @param filter    Filtro del listado.
+	 * @param orderBy   Campo de orden.
+	 * @param direction Dirección.
+	 * @param after     Cursor "después de" (o null).
+	 * @param before    Cursor "antes de" (o null).
+	 * @param size      Tamaño de página efectivo.
+	 * @param loader    Cálculo de la página si no está en caché.
+	 * @return La página.
+	 */
+	public UserListPage get(
+		UserListFilter filter,
+		UserOrderField orderBy,
+		SortDirection direction,
+		String after,
+		String before,
+		int size,
+		Supplier<UserListPage> loader
+	) {
+		Key key = new Key(
+			generation.get(),
+			filter != null ? filter : UserListFilter.NONE,
+			orderBy, direction, after, before, size);
+
+		return cache.get(key, k -> loader.get());
+	}
+
+	/**
+	 * Vacía la caché completa.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Invalida la caché tras el commit de cualquier cambio que afecte al
+	 * listado. Si el evento se publica fuera de una transacción
+	 * (fallbackExecution), se ejecuta inmediatamente.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		if (event.affectsListing()) {
+			log.debug("Invalidando caché del listado por {} {}", event.type(), event.ids());
+			invalidateAll();
+		}
+	}
+}
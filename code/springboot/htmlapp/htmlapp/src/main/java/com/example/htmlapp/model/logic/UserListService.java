@@ -2,23 +2,42 @@
 
 package com.example.htmlapp.model.logic;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.htmlapp.model.db.User;
+import com.example.htmlapp.model.db.UserListCursor;
+import com.example.htmlapp.model.db.UserListFilter;
+import com.example.htmlapp.model.db.UserListPage;
+import com.example.htmlapp.model.db.UserListRow;
 import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.db.UserSpecifications;
+import com.example.htmlapp.model.enums.BulkActionType;
 import com.example.htmlapp.model.enums.SortDirection;
 import com.example.htmlapp.model.enums.UserOrderField;
+import com.example.htmlapp.model.logic.events.UserChangedEvent;
 import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio de gestión de listas de usuarios.
  *
- * Se encarga de proporcionar listados ordenados y de ejecutar
+ * Se encarga de proporcionar listados filtrados, ordenados y paginados,
+ * y de ejecutar
  * operaciones masivas (bulk) sobre la tabla de usuarios:
  *  - Otorgar o revocar privilegios de administrador.
  *  - Eliminar usuarios.
@@ -31,36 +50,161 @@ import lombok.RequiredArgsConstructor;
  * sobre los datos recibidos, asumiendo que el controlador ya
  * ha validado los permisos necesarios.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserListService {
 
 	private final UserRepository userRepository;
+	private final UserListCache userListCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+
+	/** Tamaño de página por defecto del listado (htmlapp.userlist.page-size). */
+	@Value("${htmlapp.userlist.page-size:50}")
+	private int defaultPageSize;
+
+	/** Tamaño de página máximo aceptado (htmlapp.userlist.max-page-size). */
+	@Value("${htmlapp.userlist.max-page-size:500}")
+	private int maxPageSize;
+
+	/** IDs por lote en las operaciones masivas (htmlapp.bulk.chunk-size). */
+	@Value("${htmlapp.bulk.chunk-size:1000}")
+	private int chunkSize;
+
+	/** Rondas de reintento de filas bloqueadas (htmlapp.bulk.claim-retries). */
+	@Value("${htmlapp.bulk.claim-retries:3}")
+	private int claimRetries;
+
+	/** Espera antes de la primera ronda de reintento; crece en cada ronda. */
+	@Value("${htmlapp.bulk.claim-retry-delay:500ms}")
+	private Duration claimRetryDelay;
 
 	// -------------------------------------------------------------------------
-	// LISTADO GENERAL DE USUARIOS
+	// LISTADO PAGINADO (KEYSET)
 	// -------------------------------------------------------------------------
 
 	/**
-	 * Devuelve la lista de todos los usuarios ordenada según los parámetros.
+	 * Devuelve una página del listado de usuarios usando paginación keyset.
+	 *
+	 * Se pide siempre una fila más que el tamaño de página: si llega, es que
+	 * hay más filas en esa dirección y se genera el cursor correspondiente.
 	 *
+	 * @param filter    Criterios de filtrado (null o vacío = todos).
 	 * @param orderBy   Campo de ordenación.
 	 * @param direction Dirección del orden (ASC o DESC).
-	 * @return Lista de usuarios ordenada.
+	 * @param after     Token de la última fila de la página anterior (o null).
+	 * @param before    Token de la primera fila de la página siguiente (o null).
+	 *                  Si se indica, tiene prioridad sobre `after`.
+	 * @param size      Tamaño de página solicitado (null = valor por defecto).
+	 * @return Página con las filas y los cursores de navegación.
+	 * @throws IllegalArgumentException si algún token no es válido o la
+	 *         búsqueda es demasiado corta.
 	 */
-	@Transactional(readOnly = true)
-	public List<User> listAllUsers(UserOrderField orderBy, SortDirection direction) {
-		return switch (orderBy) {
-			case EMAIL -> direction == SortDirection.ASC
-				? userRepository.findAllOrderByEmailAsc()
-				: userRepository.findAllOrderByEmailDesc();
-			case FULL_NAME -> direction == SortDirection.ASC
-				? userRepository.findAllOrderByFullNameAsc()
-				: userRepository.findAllOrderByFullNameDesc();
-			case CREATION_DATETIME -> direction == SortDirection.ASC
-				? userRepository.findAllOrderByCreationTimestampAsc()
-				: userRepository.findAllOrderByCreationTimestampDesc();
-		};
+	public UserListPage listUsersPage(
+		UserListFilter filter,
+		UserOrderField orderBy,
+		SortDirection direction,
+		String after,
+		String before,
+		Integer size
+	) {
+		checkSearchLength(filter);
+
+		// Los tokens se validan antes de consultar la caché: un cursor mal
+		// formado nunca llega a generar una entrada.
+		UserListCursor afterCursor = UserListCursor.decode(after);
+		UserListCursor beforeCursor = UserListCursor.decode(before);
+		int pageSize = resolvePageSize(size);
+
+		return userListCache.get(
+			filter, orderBy, direction, after, before, pageSize,
+			() -> loadPage(filter, orderBy, direction, afterCursor, beforeCursor, pageSize)
+		);
+	}
+
+	/**
+	 * Lee una página de la base de datos (sin pasar por la caché).
+	 */
+	private UserListPage loadPage(
+		UserListFilter filter,
+		UserOrderField orderBy,
+		SortDirection direction,
+		UserListCursor afterCursor,
+		UserListCursor beforeCursor,
+		int pageSize
+	) {
+		Specification<User> spec = UserSpecifications.matching(filter);
+
+		if (beforeCursor != null) {
+			List<UserListRow> users = new ArrayList<>(userRepository.findKeysetPage(
+				spec, orderBy, direction, beforeCursor, true, pageSize + 1));
+
+			// Nada antes del cursor → se muestra la primera página
+			if (users.isEmpty()) {
+				return loadPage(filter, orderBy, direction, null, null, pageSize);
+			}
+
+			boolean hasMore = users.size() > pageSize;
+			if (hasMore) {
+				users.remove(users.size() - 1);
+			}
+			Collections.reverse(users); // se leyeron en orden inverso
+
+			return new UserListPage(
+				users,
+				cursorOf(users.get(users.size() - 1), orderBy),
+				hasMore ? cursorOf(users.get(0), orderBy) : null
+			);
+		}
+
+		List<UserListRow> users = new ArrayList<>(userRepository.findKeysetPage(
+			spec, orderBy, direction, afterCursor, false, pageSize + 1));
+
+		boolean hasMore = users.size() > pageSize;
+		if (hasMore) {
+			users.remove(users.size() - 1);
+		}
+
+		return new UserListPage(
+			users,
+			hasMore ? cursorOf(users.get(users.size() - 1), orderBy) : null,
+			afterCursor != null && !users.isEmpty()
+				? cursorOf(users.get(0), orderBy)
+				: null
+		);
+	}
+
+	/**
+	 * Devuelve el tamaño de página efectivo, acotado entre 1 y el máximo.
+	 *
+	 * @param size Tamaño solicitado (null = valor por defecto).
+	 * @return Tamaño de página a usar.
+	 */
+	public int resolvePageSize(Integer size) {
+		if (size == null) {
+			return defaultPageSize;
+		}
+		return Math.max(1, Math.min(size, maxPageSize));
+	}
+
+	private String cursorOf(UserListRow user, UserOrderField orderBy) {
+		return UserListCursor.of(user, orderBy).encode();
+	}
+
+	/**
+	 * Rechaza las búsquedas libres demasiado cortas (no usarían el índice).
+	 * También la usa UserExportService.
+	 *
+	 * @throws IllegalArgumentException si la búsqueda es demasiado corta.
+	 */
+	static void checkSearchLength(UserListFilter filter) {
+		if (filter != null && filter.search() != null
+				&& filter.search().length() < UserListFilter.MIN_SEARCH_LENGTH) {
+			throw new IllegalArgumentException(String.format(
+				"La búsqueda debe tener al menos %d caracteres.",
+				UserListFilter.MIN_SEARCH_LENGTH));
+		}
 	}
 
 	// -------------------------------------------------------------------------
@@ -73,22 +217,67 @@ public class UserListService {
 	 * No realiza comprobaciones de permisos; se asume que el controlador
 	 * ya ha excluido los usuarios que no deben procesarse (como el logado).
 	 *
-	 * @param ids Lista de IDs seleccionados.
+	 * Devuelve proyecciones de solo lectura (UserListRow): la pantalla de
+	 * confirmación solo muestra datos, no modifica entidades.
+	 *
+	 * Se consulta por lotes de htmlapp.bulk.chunk-size IDs para no superar el
+	 * límite de parámetros de PostgreSQL con selecciones grandes.
+	 *
+	 * @param ids IDs seleccionados.
 	 * @return Lista de usuarios existentes.
 	 */
 	@Transactional(readOnly = true)
-	public List<User> listUsersByIds(List<Integer> ids) {
+	public List<UserListRow> listUsersByIds(IdSet ids) {
 		if (ids == null || ids.isEmpty()) {
 			throw new IllegalArgumentException("Debe seleccionar al menos un usuario.");
 		}
 
-		List<User> users = userRepository.findAllByIdIn(ids);
+		int size = Math.max(1, chunkSize);
+		List<UserListRow> users = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += size) {
+			users.addAll(userRepository.findRowsByIdIn(
+				ids.slice(from, Math.min(ids.size(), from + size))));
+		}
 		if (users.isEmpty()) {
 			throw new OperationFailedException("No hay usuarios válidos para procesar.", 400);
 		}
 		return users;
 	}
 
+	/**
+	 * Cuenta los usuarios que cumplen el filtro, sin contar `excludeId`.
+	 *
+	 * @param filter    Criterios de filtrado (null o vacío = todos).
+	 * @param excludeId Usuario a excluir (el logado), o null.
+	 * @return Número de usuarios.
+	 * @throws IllegalArgumentException si la búsqueda es demasiado corta.
+	 */
+	@Transactional(readOnly = true)
+	public long countMatching(UserListFilter filter, Integer excludeId) {
+		checkSearchLength(filter);
+		return userRepository.count(matchingExcept(filter, excludeId));
+	}
+
+	/**
+	 * Devuelve una muestra (los primeros por email) de los usuarios que
+	 * cumplen el filtro, sin `excludeId`.
+	 *
+	 * @param filter    Criterios de filtrado (null o vacío = todos).
+	 * @param excludeId Usuario a excluir (el logado), o null.
+	 * @param limit     Tamaño de la muestra.
+	 * @return Filas de la muestra.
+	 */
+	@Transactional(readOnly = true)
+	public List<UserListRow> sampleMatching(UserListFilter filter, Integer excludeId, int limit) {
+		checkSearchLength(filter);
+		return userRepository.findKeysetPage(matchingExcept(filter, excludeId),
+			UserOrderField.EMAIL, SortDirection.ASC, null, false, limit);
+	}
+
+	private static Specification<User> matchingExcept(UserListFilter filter, Integer excludeId) {
+		return UserSpecifications.matching(filter).and(UserSpecifications.notId(excludeId));
+	}
+
 	// -------------------------------------------------------------------------
 	// OPERACIONES MASIVAS (BULK)
 	// -------------------------------------------------------------------------
@@ -96,28 +285,245 @@ public class UserListService {
 	/**
 	 * Cambia el estado de administrador de un conjunto de usuarios.
 	 *
-	 * @param ids     Lista de IDs.
+	 * @param ids     IDs de los usuarios.
 	 * @param isAdmin true para otorgar, false para revocar.
+	 * @return Resultado por lotes.
 	 */
-	@Transactional
-	public void setAdminStatusBulk(List<Integer> ids, boolean isAdmin) {
-		if (ids == null || ids.isEmpty()) {
-			throw new OperationFailedException("No hay usuarios válidos para modificar.", 400);
-		}
-		userRepository.updateAdminStatusByIds(ids, isAdmin);
+	public BulkResult setAdminStatusBulk(IdSet ids, boolean isAdmin) {
+		return executeBulk(isAdmin ? BulkActionType.GRANT : BulkActionType.REVOKE, ids, chunk -> {});
 	}
 
 	/**
 	 * Elimina en bloque una lista de usuarios.
 	 *
-	 * @param ids Lista de IDs a eliminar.
+	 * @param ids IDs de los usuarios a eliminar.
+	 * @return Resultado por lotes.
 	 */
-	@Transactional
-	public void deleteUsersBulk(List<Integer> ids) {
+	public BulkResult deleteUsersBulk(IdSet ids) {
+		return executeBulk(BulkActionType.DELETE, ids, chunk -> {});
+	}
+
+	/**
+	 * Ejecuta una acción masiva por lotes de htmlapp.bulk.chunk-size IDs.
+	 *
+	 * Cada lote es una sentencia y una transacción propias: los bloqueos de
+	 * fila duran lo que un lote (un login o una edición que toque uno de esos
+	 * usuarios espera como mucho eso) y ninguna sentencia supera el límite de
+	 * parámetros de PostgreSQL.
+	 *
+	 * Cada lote empieza reclamando sus filas (UserRepository.claimIds(), con
+	 * SKIP LOCKED). Si otra operación masiva tiene bloqueadas algunas, no se
+	 * la espera: esas filas se saltan y se reintentan al final, hasta
+	 * htmlapp.bulk.claim-retries veces. Dos administradores que actúan a la
+	 * vez sobre usuarios comunes nunca se bloquean entre sí ni se interbloquean.
+	 *
+	 * Un lote que falla se deshace y se anota en el resultado; los demás se
+	 * ejecutan igualmente.
+	 *
+	 * Los IDs llegan como IdSet (int[] ordenado y sin repetidos): cada lote
+	 * es una vista slice() sobre ese array, sin copiar la selección entera
+	 * a una List<Integer>.
+	 *
+	 * @param action  Acción a ejecutar.
+	 * @param ids     IDs de los usuarios.
+	 * @param onChunk Se llama tras cada lote (progreso).
+	 * @return Resultado por lotes.
+	 */
+	public BulkResult executeBulk(
+		BulkActionType action,
+		IdSet ids,
+		Consumer<BulkResult.Chunk> onChunk
+	) {
 		if (ids == null || ids.isEmpty()) {
-			throw new OperationFailedException("No hay usuarios válidos para eliminar.", 400);
+			throw new OperationFailedException("No hay usuarios válidos para procesar.", 400);
+		}
+
+		long start = System.nanoTime();
+		List<BulkResult.Chunk> chunks = new ArrayList<>();
+
+		IdSet pending = runChunks(action, ids, chunks, onChunk);
+		pending = retryLocked(action, pending, chunks, onChunk);
+
+		return new BulkResult(action, ids.size(), chunks, pending.size(),
+			Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	/**
+	 * Recorre `ids` en lotes de htmlapp.bulk.chunk-size.
+	 *
+	 * @return IDs que otra operación tenía bloqueados.
+	 */
+	private IdSet runChunks(
+		BulkActionType action,
+		IdSet ids,
+		List<BulkResult.Chunk> chunks,
+		Consumer<BulkResult.Chunk> onChunk
+	) {
+		int size = Math.max(1, chunkSize);
+		List<Integer> locked = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += size) {
+			List<Integer> chunkIds = ids.slice(from, Math.min(ids.size(), from + size));
+
+			BulkResult.Chunk chunk = runChunk(action, chunks.size(), chunkIds, locked);
+			chunks.add(chunk);
+			onChunk.accept(chunk);
+		}
+		return IdSet.of(locked);
+	}
+
+	/**
+	 * Reintenta los IDs bloqueados hasta htmlapp.bulk.claim-retries veces.
+	 *
+	 * @return IDs que siguen bloqueados (no procesados).
+	 */
+	private IdSet retryLocked(
+		BulkActionType action,
+		IdSet pending,
+		List<BulkResult.Chunk> chunks,
+		Consumer<BulkResult.Chunk> onChunk
+	) {
+		for (int round = 1; !pending.isEmpty() && round <= claimRetries; round++) {
+			// Se da tiempo a que la otra operación confirme su lote
+			try {
+				Thread.sleep(claimRetryDelay.multipliedBy(round));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			pending = runChunks(action, pending, chunks, onChunk);
+		}
+
+		if (!pending.isEmpty()) {
+			log.warn("{}: {} IDs siguen bloqueados por otra operación y no se han procesado",
+				action, pending.size());
+		}
+		return pending;
+	}
+
+	/**
+	 * Ejecuta un lote en su propia transacción.
+	 *
+	 * Solo se procesan las filas reclamadas; las que existen pero estaban
+	 * bloqueadas se añaden a `locked` para reintentarlas.
+	 *
+	 * El evento se publica dentro de la transacción: las cachés se invalidan
+	 * tras el commit de CADA lote, no al final de toda la operación.
+	 */
+	private BulkResult.Chunk runChunk(
+		BulkActionType action,
+		int index,
+		List<Integer> ids,
+		List<Integer> locked
+	) {
+		long start = System.nanoTime();
+		List<Integer> skipped = new ArrayList<>();
+		try {
+			int affected = transactionTemplate.execute(status -> {
+				List<Integer> claimed = userRepository.claimIds(ids);
+
+				// Faltan filas: o no existen (borradas) o las tiene otra operación
+				if (claimed.size() < ids.size()) {
+					Set<Integer> mine = new HashSet<>(claimed);
+					for (Integer id : userRepository.findExistingIds(ids)) {
+						if (!mine.contains(id)) {
+							skipped.add(id);
+						}
+					}
+				}
+				if (claimed.isEmpty()) {
+					return 0;
+				}
+
+				int rows = switch (action) {
+					case GRANT -> userRepository.updateAdminStatusByIds(claimed, true);
+					case REVOKE -> userRepository.updateAdminStatusByIds(claimed, false);
+					case DELETE -> userRepository.deleteAllByIds(claimed);
+				};
+				eventPublisher.publishEvent(new UserChangedEvent(
+					action == BulkActionType.DELETE
+						? UserChangedEvent.Type.DELETED
+						: UserChangedEvent.Type.ADMIN_CHANGED,
+					claimed));
+				return rows;
+			});
+			locked.addAll(skipped);
+			return new BulkResult.Chunk(index, ids.size(), affected, skipped.size(),
+				millisSince(start), null);
+
+		} catch (RuntimeException ex) {
+			log.warn("Lote {} de {} ({} IDs) fallido", index, action, ids.size(), ex);
+			return new BulkResult.Chunk(index, ids.size(), 0, 0, millisSince(start),
+				"No se pudo procesar el lote (" + ex.getClass().getSimpleName() + ")");
 		}
-		userRepository.deleteAllByIdIn(ids);
+	}
+
+	/**
+	 * Ejecuta una acción masiva sobre TODOS los usuarios que cumplen el
+	 * filtro (salvo `excludeId`).
+	 *
+	 * Los IDs no viajan por el formulario: el filtro basta para que la base
+	 * de datos encuentre las filas. Se recorren en orden de ID, de
+	 * htmlapp.bulk.chunk-size en htmlapp.bulk.chunk-size (keyset: "los
+	 * siguientes después del último"), y cada bloque se procesa igual que en
+	 * executeBulk(): su propia transacción, SKIP LOCKED y reintento de los
+	 * bloqueados al final.
+	 *
+	 * Así, con millones de usuarios que cumplen el filtro, en memoria solo
+	 * hay un bloque de IDs y los bloqueos de fila duran lo que un lote, no
+	 * toda la operación. Cada lote publica su UserChangedEvent con sus IDs.
+	 *
+	 * Un usuario que empieza a cumplir el filtro durante la operación entra
+	 * si su ID aún no se ha recorrido; uno que deja de cumplirlo antes de
+	 * su lote no se toca.
+	 *
+	 * @param action    Acción a ejecutar.
+	 * @param filter    Criterios de filtrado (null o vacío = todos).
+	 * @param excludeId Usuario a excluir (el logado), o null.
+	 * @param onChunk   Se llama tras cada lote (progreso).
+	 * @return Resultado por lotes.
+	 * @throws IllegalArgumentException si la búsqueda es demasiado corta.
+	 */
+	public BulkResult executeMatching(
+		BulkActionType action,
+		UserListFilter filter,
+		Integer excludeId,
+		Consumer<BulkResult.Chunk> onChunk
+	) {
+		checkSearchLength(filter);
+		Specification<User> spec = matchingExcept(filter, excludeId);
+
+		int size = Math.max(1, chunkSize);
+		long start = System.nanoTime();
+		List<BulkResult.Chunk> chunks = new ArrayList<>();
+		List<Integer> locked = new ArrayList<>();
+		int total = 0;
+
+		Integer after = null;
+		while (true) {
+			List<Integer> chunkIds = userRepository.findIdsMatchingAfter(spec, after, size);
+			if (chunkIds.isEmpty()) {
+				break;
+			}
+			total += chunkIds.size();
+			after = chunkIds.get(chunkIds.size() - 1);
+
+			BulkResult.Chunk chunk = runChunk(action, chunks.size(), chunkIds, locked);
+			chunks.add(chunk);
+			onChunk.accept(chunk);
+
+			if (chunkIds.size() < size) {
+				break;
+			}
+		}
+
+		IdSet pending = retryLocked(action, IdSet.of(locked), chunks, onChunk);
+
+		return new BulkResult(action, total, chunks, pending.size(),
+			Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	private static long millisSince(long startNanos) {
+		return (System.nanoTime() - startNanos) / 1_000_000;
 	}
 }
 
@@ -141,13 +547,52 @@ se realiza en el **controlador** antes de invocar estos métodos.
 Los métodos bulk utilizan sentencias SQL directas a través del repositorio
 para minimizar el tráfico y mejorar el rendimiento.
 
+Con selecciones muy grandes una sola sentencia tendría decenas de miles de
+parámetros (PostgreSQL admite 32767) y una sola transacción mantendría
+bloqueadas todas esas filas hasta el final. `executeBulk()` las reparte en
+lotes (htmlapp.bulk.chunk-size), cada uno con su commit, y devuelve el
+resultado de cada lote (`BulkResult`).
+
+Cada lote reclama sus filas con `SELECT ... FOR UPDATE SKIP LOCKED`: si
+otra operación masiva está trabajando sobre algunos de esos usuarios, no se
+la espera; se procesan los demás y los bloqueados se reintentan al final.
+Las operaciones largas se lanzan en segundo plano con `BulkJobService`.
+
+Los IDs seleccionados viajan como `IdSet` desde el formulario hasta aquí:
+en el campo oculto van como rangos ("1-500,502-900", unos pocos bytes para
+una selección de miles de IDs seguidos) y en el servidor como un int[]
+ordenado y sin repetidos, del que cada lote toma una vista (`slice()`).
+
+"Todos los que cumplen el filtro" (`executeMatching()`) no necesita la
+lista de IDs: el mismo Specification del listado se recorre por bloques de
+IDs en orden (keyset sobre id_user) y cada bloque es un lote como los de
+`executeBulk()`. Nunca se cargan en memoria todos los IDs ni se mantiene
+una transacción abierta durante toda la operación.
+
 4. SEPARACIÓN DE CAPAS
 -----------------------
 - `UserRepository` → consultas y acceso a datos.
 - `UserListService` → operaciones de negocio.
 - `UserListController` → control de flujo, vistas y permisos.
 
-5. OBJETIVO PEDAGÓGICO
+5. PAGINACIÓN KEYSET
+---------------------
+`listUsersPage()` no usa OFFSET: cada página se pide "a partir de" la última
+fila mostrada (o "antes de" la primera, para retroceder). Así el tiempo de
+respuesta no depende de cuántas filas haya por delante ni del tamaño total
+de la tabla.
+
+Los listados devuelven UserListRow (proyección) en lugar de User: solo se
+leen las columnas visibles y las filas no se gestionan como entidades.
+
+Las páginas pasan por `UserListCache`: una recarga de la misma página
+(mismo filtro, orden, cursor y tamaño) no vuelve a la base de datos. Cada
+operación que modifica usuarios publica un `UserChangedEvent` y la caché se
+vacía tras el commit. Por eso `listUsersPage()` no es @Transactional: la
+transacción de lectura la abre el repositorio solo cuando hay un fallo de
+caché.
+
+6. OBJETIVO PEDAGÓGICO
 ------------------------
 Ilustrar un diseño de servicios limpio, reusable y sin acoplamiento
 a la capa de presentación o seguridad.
@@ -4,11 +4,15 @@ package com.example.htmlapp.model.logic;
 
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.htmlapp.model.db.User;
 import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.logic.events.UserChangedEvent;
+import com.example.htmlapp.model.logic.events.UserChangedEvent.Type;
 import com.example.htmlapp.model.logic.exceptions.OperationFailedException;
 
 import lombok.RequiredArgsConstructor;
@@ -28,6 +32,12 @@ import lombok.RequiredArgsConstructor;
  * - Cambiar contraseñas.
  * - Eliminar usuarios de la base de datos.
  * - Mantener la integridad y validación de datos.
+ *
+ * El hash de la contraseña (registro y cambio) se calcula ANTES de abrir la
+ * transacción: puede tardar decenas de milisegundos más la espera en la
+ * cola de PasswordHashingExecutor, y durante una transacción la conexión
+ * del pool queda ocupada. Con varias altas a la vez se agotaría el pool y
+ * los logins (findByEmail) esperarían. Dentro solo queda el INSERT/UPDATE.
  */
 @Service
 @RequiredArgsConstructor
@@ -35,6 +45,9 @@ public class UserService {
 
 	private final UserRepository userRepository;
 	private final PasswordService passwordService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final EmailFilter emailFilter;
+	private final TransactionTemplate transactionTemplate;
 
 	// -------------------------------------------------------------------------
 	// REGISTRO DE NUEVO USUARIO
@@ -49,19 +62,21 @@ public class UserService {
 	 * (como `creation_timestamp` o `is_admin = false`) se reflejen en el
 	 * objeto devuelto.
 	 *
+	 * Si EmailFilter asegura que el email no existe, se omite la consulta
+	 * de comprobación.
+	 *
 	 * @param fullName  Nombre completo.
 	 * @param email     Email (único).
 	 * @param password  Contraseña en texto plano.
 	 * @return El objeto User recién creado, sincronizado con la BD.
-	 *
 	 * @throws OperationFailedException si el email ya existe.
 	 */
-	@Transactional
 	public User registerUser(String fullName, String email, String password) {
-		if (userRepository.findByEmail(email).isPresent()) {
+		if (emailExists(email)) {
 			throw new OperationFailedException("El email ya está registrado.", 400);
 		}
 
+		// Fuera de la transacción (ver la cabecera de la clase)
 		String salt = passwordService.generateSalt();
 		String hash = passwordService.hashPassword(password, salt);
 
@@ -72,8 +87,17 @@ public class UserService {
 			.passwordHash(hash)
 			.build();
 
-		// Se usa insert() en lugar de save() para obtener los valores por defecto.
-		return userRepository.insert(newUser);
+		return transactionTemplate.execute(status -> {
+			// Se añade al filtro antes del INSERT: nunca debe faltar un email que
+			// ya esté en la BD (si la transacción falla, solo queda un falso
+			// positivo). Dentro de la transacción para que se repita tras el commit.
+			emailFilter.add(email);
+
+			// Se usa insert() en lugar de save() para obtener los valores por defecto.
+			User created = userRepository.insert(newUser);
+			eventPublisher.publishEvent(UserChangedEvent.of(Type.CREATED, created.getId()));
+			return created;
+		});
 	}
 
 	// -------------------------------------------------------------------------
@@ -91,12 +115,16 @@ public class UserService {
 			throw new IllegalArgumentException("El ID del usuario no puede ser nulo.");
 		}
 
-		Optional<User> existing = userRepository.findByEmail(user.getEmail());
-		if (existing.isPresent() && !existing.get().getId().equals(user.getId())) {
-			throw new IllegalArgumentException("El email ya está en uso por otro usuario.");
+		if (emailFilter.mightContain(user.getEmail())) {
+			Optional<User> existing = userRepository.findByEmail(user.getEmail());
+			if (existing.isPresent() && !existing.get().getId().equals(user.getId())) {
+				throw new IllegalArgumentException("El email ya está en uso por otro usuario.");
+			}
 		}
 
+		emailFilter.add(user.getEmail());
 		userRepository.save(user);
+		eventPublisher.publishEvent(UserChangedEvent.of(Type.UPDATED, user.getId()));
 	}
 
 	// -------------------------------------------------------------------------
@@ -109,15 +137,18 @@ public class UserService {
 	 * @param user        Usuario al que pertenece la contraseña.
 	 * @param newPassword Nueva contraseña en texto plano.
 	 */
-	@Transactional
 	public void changePassword(User user, String newPassword) {
+		// Fuera de la transacción (ver la cabecera de la clase)
 		String newSalt = passwordService.generateSalt();
 		String newHash = passwordService.hashPassword(newPassword, newSalt);
 
 		user.setSalt(newSalt);
 		user.setPasswordHash(newHash);
 
-		userRepository.save(user);
+		transactionTemplate.executeWithoutResult(status -> {
+			userRepository.save(user);
+			eventPublisher.publishEvent(UserChangedEvent.of(Type.PASSWORD_CHANGED, user.getId()));
+		});
 	}
 
 	// -------------------------------------------------------------------------
@@ -137,6 +168,7 @@ public class UserService {
 
 		user.setIsAdmin(isAdmin);
 		userRepository.save(user);
+		eventPublisher.publishEvent(UserChangedEvent.of(Type.ADMIN_CHANGED, id));
 	}
 
 	// -------------------------------------------------------------------------
@@ -154,6 +186,7 @@ public class UserService {
 			throw new OperationFailedException("El usuario no existe.", 404);
 		}
 		userRepository.deleteById(id);
+		eventPublisher.publishEvent(UserChangedEvent.of(Type.DELETED, id));
 	}
 
 	// -------------------------------------------------------------------------
@@ -169,6 +202,25 @@ public class UserService {
 	public Optional<User> findById(int id) {
 		return userRepository.findById(id);
 	}
+
+	/**
+	 * Indica si hay un usuario con ese email, consultando la BD solo si
+	 * EmailFilter no puede descartarlo.
+	 *
+	 * @param email Email a comprobar.
+	 * @return true si el email está registrado.
+	 */
+	public boolean emailExists(String email) {
+		if (!emailFilter.mightContain(email)) {
+			return false;
+		}
+
+		boolean exists = userRepository.findByEmail(email).isPresent();
+		if (!exists) {
+			emailFilter.recordFalsePositive();
+		}
+		return exists;
+	}
 }
 
 /*
@@ -193,7 +245,9 @@ Las contraseñas nunca se almacenan en texto plano:
 3. VALIDACIÓN DE EMAIL
 -----------------------
 Se comprueba siempre la unicidad del email tanto al registrar
-como al actualizar usuarios.
+como al actualizar usuarios. Antes se pregunta a EmailFilter (filtro de
+Bloom en memoria): si responde que el email no existe, es seguro y se
+ahorra la consulta; si responde "puede existir", se consulta la BD.
 
 4. SEPARACIÓN DE CAPAS
 -----------------------
@@ -201,7 +255,13 @@ como al actualizar usuarios.
  - UserService → lógica de negocio.
  - Controladores → flujo de vistas y entrada de usuario.
 
-5. OBJETIVO PEDAGÓGICO
+5. EVENTOS DE CAMBIO
+---------------------
+Cada escritura publica un `UserChangedEvent`. Los componentes con datos
+derivados (p. ej. UserListCache) lo escuchan y se invalidan tras el commit,
+sin que este servicio tenga que conocerlos.
+
+6. OBJETIVO PEDAGÓGICO
 ------------------------
 Este servicio ilustra cómo aplicar:
  - Seguridad en contraseñas y validación de datos.
@@ -0,0 +1,150 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.example.htmlapp.model.db.User;
+import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.logic.events.UserChangedEvent;
+import com.example.htmlapp.model.logic.events.UserVersionsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de usuarios por ID para las comprobaciones de permisos.
+ *
+ * Las páginas /user/details, /user/edit, /user/change-password y
+ * /user/delete cargan el usuario destino antes de hacer nada. Con esta caché
+ * una vista cuesta como mucho UNA consulta, y las recargas seguidas ninguna.
+ *
+ * ----------------------------------------------------------------------------
+ * DOS NIVELES
+ * ----------------------------------------------------------------------------
+ * 1. Petición: un mapa guardado como atributo de la petición HTTP. Dentro
+ *    de la misma petición el mismo ID se resuelve una sola vez, aunque lo
+ *    pidan varios servicios.
+ * 2. Compartido: Caffeine con tamaño máximo y caducidad corta
+ *    (htmlapp.user-snapshot.cache.*). También recuerda los IDs que no
+ *    existen (Optional.empty()).
+ *
+ * ----------------------------------------------------------------------------
+ * COPIAS E INVALIDACIÓN
+ * ----------------------------------------------------------------------------
+ * Los controladores modifican el usuario devuelto (setEmail, setSalt...)
+ * antes de guardarlo. Por eso cada llamada devuelve una COPIA: la instantánea
+ * de la caché nunca se modifica.
+ *
+ * Las escrituras de UserService y UserListService publican UserChangedEvent;
+ * tras el commit se invalidan los IDs afectados. Los cambios hechos en otras
+ * instancias llegan como UserVersionsChangedEvent remotos (si
+ * PostgresUserVersionBridge está activo). La caducidad cubre los cambios
+ * hechos fuera de la aplicación.
+ *
+ * Métricas: /actuator/metrics/cache.gets?tag=cache:userSnapshots
+ */
+@Component
+public class UserSnapshotCache {
+
+	static final String CACHE_NAME = "userSnapshots";
+
+	private static final String REQUEST_ATTRIBUTE =
+		UserSnapshotCache.class.getName() + ".snapshots";
+
+	private final UserRepository userRepository;
+	private final Cache<Integer, Optional<User>> cache;
+
+	public UserSnapshotCache(
+		UserRepository userRepository,
+		@Value("${htmlapp.user-snapshot.cache.max-size:10000}") long maxSize,
+		@Value("${htmlapp.user-snapshot.cache.ttl:5s}") Duration ttl,
+		MeterRegistry meterRegistry
+	) {
+		this.userRepository = userRepository;
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterWrite(ttl)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Busca un usuario por ID pasando por las dos cachés.
+	 *
+	 * @param id ID del usuario.
+	 * @return Copia del usuario, o vacío si no existe.
+	 */
+	public Optional<User> findById(int id) {
+		Map<Integer, Optional<User>> requestSnapshots = requestSnapshots();
+
+		Optional<User> snapshot = requestSnapshots != null
+			? requestSnapshots.computeIfAbsent(id, this::sharedSnapshot)
+			: sharedSnapshot(id);
+
+		return snapshot.map(user -> user.toBuilder().build());
+	}
+
+	/**
+	 * Descarta las instantáneas de los usuarios modificados (tras el commit).
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onUserChanged(UserChangedEvent event) {
+		cache.invalidateAll(event.ids());
+
+		Map<Integer, Optional<User>> requestSnapshots = requestSnapshots();
+		if (requestSnapshots != null) {
+			event.ids().forEach(requestSnapshots::remove);
+		}
+	}
+
+	/**
+	 * Descarta las instantáneas de los usuarios modificados en otra instancia.
+	 */
+	@EventListener
+	public void onRemoteVersionsChanged(UserVersionsChangedEvent event) {
+		if (event.remote()) {
+			cache.invalidateAll(event.versions().keySet());
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	private Optional<User> sharedSnapshot(int id) {
+		return cache.get(id, userRepository::findById);
+	}
+
+	/**
+	 * Mapa de la petición HTTP actual (null fuera de una petición, p. ej. en
+	 * hilos de fondo: entonces solo se usa la caché compartida).
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<Integer, Optional<User>> requestSnapshots() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+
+		Object map = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (map == null) {
+			map = new HashMap<Integer, Optional<User>>();
+			attributes.setAttribute(REQUEST_ATTRIBUTE, map, RequestAttributes.SCOPE_REQUEST);
+		}
+		return (Map<Integer, Optional<User>>) map;
+	}
+}
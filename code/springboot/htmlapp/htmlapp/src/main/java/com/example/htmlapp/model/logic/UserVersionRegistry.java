@@ -0,0 +1,222 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.db.UserVersion;
+import com.example.htmlapp.model.logic.events.UserChangedEvent;
+import com.example.htmlapp.model.logic.events.UserVersionsChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Últimas versiones conocidas de los usuarios modificados, para saber qué
+ * sesiones guardan un SessionUser anticuado.
+ *
+ * Cada SessionUser lleva la versión de la fila de la que se copió. Cuando
+ * un administrador cambia o borra usuarios (también en bloque), las
+ * sesiones de ESOS usuarios no se tocan: aquí se apunta la nueva versión y
+ * AuthService.getUser() compara en la siguiente petición de cada sesión:
+ *
+ *   versión en sesión >= versión conocida → la sesión es válida (sin BD)
+ *   versión en sesión <  versión conocida → se vuelve a leer el usuario
+ *   usuario borrado                       → se cierra la sesión
+ *
+ * El coste por petición es una búsqueda en una caché; solo las sesiones
+ * afectadas hacen una consulta, y una sola vez.
+ *
+ * ----------------------------------------------------------------------------
+ * DE DÓNDE SALEN LAS VERSIONES
+ * ----------------------------------------------------------------------------
+ * 1. UserService y UserListService publican UserChangedEvent (solo IDs).
+ * 2. Tras el commit, onUserChanged() lee la versión de esas filas con una
+ *    consulta (los borrados no la necesitan) y publica
+ *    UserVersionsChangedEvent.
+ * 3. onVersionsChanged() apunta las versiones. El mismo evento lo reenvía
+ *    a las demás instancias PostgresUserVersionBridge (si está activo), que
+ *    allí se publica con remote = true y llega también a este método.
+ *
+ * Los cambios de contraseña no se propagan: no afectan a SessionUser.
+ *
+ * ----------------------------------------------------------------------------
+ * QUÉ USUARIOS SE GUARDAN
+ * ----------------------------------------------------------------------------
+ * Solo los que tienen una sesión en uso: la caché (Caffeine) tiene tamaño
+ * máximo (htmlapp.user-versions.max-size) y olvida los usuarios sin
+ * peticiones durante htmlapp.user-versions.ttl. Un cambio de versión solo
+ * actualiza los usuarios que ya están en la caché; un borrado masivo de un
+ * millón de usuarios no añade ninguna entrada.
+ *
+ * Si la sesión de un usuario que NO está en la caché hace una petición, se
+ * lee su versión actual de la base de datos (una consulta por la clave
+ * primaria) y se guarda. El login la guarda directamente (remember()).
+ * Así, olvidar un usuario nunca da por buena una sesión anticuada: como
+ * mucho cuesta esa consulta.
+ *
+ * Métricas:
+ *   sessions.user.revalidated → sesiones que han releído el usuario
+ *   cache.gets?tag=cache:userVersions → aciertos y fallos de la caché
+ */
+@Component
+public class UserVersionRegistry {
+
+	/** Versión que indica que el usuario ya no existe. */
+	public static final long DELETED = -1;
+
+	static final String CACHE_NAME = "userVersions";
+
+	/* filas por consulta al leer versiones (límite de parámetros de IN) */
+	private static final int QUERY_CHUNK = 1000;
+
+	private final UserRepository userRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Counter revalidatedCounter;
+
+	/* versión conocida de los usuarios con sesión en uso */
+	private final Cache<Integer, Long> versions;
+
+	public UserVersionRegistry(
+		UserRepository userRepository,
+		ApplicationEventPublisher eventPublisher,
+		@Value("${htmlapp.user-versions.max-size:100000}") long maxSize,
+		@Value("${htmlapp.user-versions.ttl:30m}") Duration ttl,
+		MeterRegistry meterRegistry
+	) {
+		this.userRepository = userRepository;
+		this.eventPublisher = eventPublisher;
+		this.versions = Caffeine.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterAccess(ttl)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, versions, CACHE_NAME);
+		this.revalidatedCounter = Counter.builder("sessions.user.revalidated")
+			.description("Sesiones que han releído su usuario por un cambio de versión")
+			.register(meterRegistry);
+	}
+
+	// -------------------------------------------------------------------------
+	// CONSULTAS
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Indica si el usuario guardado en sesión está anticuado.
+	 *
+	 * Si el usuario no está en la caché, se lee su versión de la BD.
+	 */
+	public boolean isStale(SessionUser user) {
+		long latest = versions.get(user.id(), this::loadVersion);
+		return latest == DELETED || user.version() < latest;
+	}
+
+	/**
+	 * Indica si se sabe que el usuario ha sido borrado.
+	 */
+	public boolean isDeleted(int id) {
+		Long latest = versions.getIfPresent(id);
+		return latest != null && latest == DELETED;
+	}
+
+	/**
+	 * Anota la versión de un usuario que acaba de iniciar sesión (evita la
+	 * consulta en su primera petición).
+	 */
+	public void remember(SessionUser user) {
+		versions.asMap().merge(user.id(), user.version(), UserVersionRegistry::latest);
+	}
+
+	/**
+	 * Anota que una sesión ha releído su usuario (y su versión actual).
+	 */
+	public void revalidated(SessionUser fresh) {
+		remember(fresh);
+		revalidatedCounter.increment();
+	}
+
+	// -------------------------------------------------------------------------
+	// EVENTOS
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Lee las versiones de los usuarios modificados (tras el commit) y las
+	 * publica como UserVersionsChangedEvent.
+	 *
+	 * REQUIRES_NEW: la transacción que publicó el evento ya ha terminado.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+	public void onUserChanged(UserChangedEvent event) {
+		if (event.type() == UserChangedEvent.Type.CREATED
+				|| event.type() == UserChangedEvent.Type.PASSWORD_CHANGED) {
+			return;
+		}
+
+		Map<Integer, Long> changed = new HashMap<>();
+		for (Integer id : event.ids()) {
+			changed.put(id, DELETED);
+		}
+
+		if (event.type() != UserChangedEvent.Type.DELETED) {
+			List<Integer> ids = event.ids();
+			for (int from = 0; from < ids.size(); from += QUERY_CHUNK) {
+				List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + QUERY_CHUNK));
+				for (UserVersion row : userRepository.findVersionsByIdIn(chunk)) {
+					changed.put(row.id(), row.version());
+				}
+			}
+		}
+
+		eventPublisher.publishEvent(new UserVersionsChangedEvent(changed, false));
+	}
+
+	/**
+	 * Apunta las nuevas versiones (cambios de esta instancia o de otras).
+	 *
+	 * Solo se actualizan los usuarios que ya están en la caché: los demás
+	 * leerán su versión de la BD si vuelven a hacer una petición.
+	 */
+	@EventListener
+	public void onVersionsChanged(UserVersionsChangedEvent event) {
+		Map<Integer, Long> known = versions.asMap();
+		event.versions().forEach((id, version) ->
+			known.computeIfPresent(id, (key, old) -> latest(old, version)));
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	/*
+	 * Versión actual en la BD (DELETED si el usuario ya no existe). La llama
+	 * la caché con la entrada bloqueada: un cambio que llegue mientras tanto
+	 * espera y se aplica después.
+	 */
+	private long loadVersion(int id) {
+		return userRepository.findVersionById(id).orElse(DELETED);
+	}
+
+	/*
+	 * Las versiones solo crecen y el borrado es definitivo: un aviso que
+	 * llega tarde o repetido no puede dar por buena una sesión anticuada.
+	 */
+	private static long latest(long old, long now) {
+		return old == DELETED || now == DELETED ? DELETED : Math.max(old, now);
+	}
+}
@@ -0,0 +1,57 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.events;
+
+import java.util.List;
+
+/**
+ * Evento de aplicación que se publica cada vez que cambian datos de usuarios.
+ *
+ * Lo publican UserService y UserListService tras cada escritura, y lo
+ * escuchan los componentes que guardan información derivada de la tabla
+ * users (cachés, etc.) para invalidarla.
+ *
+ * ----------------------------------------------------------------------------
+ * ¿POR QUÉ UN EVENTO Y NO UNA LLAMADA DIRECTA?
+ * ----------------------------------------------------------------------------
+ * - Los servicios de negocio no necesitan conocer qué cachés existen.
+ * - Con @TransactionalEventListener el oyente se ejecuta DESPUÉS del commit:
+ *   si se invalidara antes, otra petición podría volver a cachear los datos
+ *   antiguos mientras la transacción aún no es visible.
+ *
+ * @param type Tipo de cambio.
+ * @param ids  IDs de los usuarios afectados.
+ */
+public record UserChangedEvent(Type type, List<Integer> ids) {
+
+	/** Tipos de cambio sobre usuarios. */
+	public enum Type {
+		/** Alta de un usuario nuevo. */
+		CREATED,
+		/** Cambio de datos personales (email, nombre). */
+		UPDATED,
+		/** Cambio de contraseña (salt / hash). */
+		PASSWORD_CHANGED,
+		/** Cambio del indicador de administrador. */
+		ADMIN_CHANGED,
+		/** Eliminación. */
+		DELETED
+	}
+
+	public UserChangedEvent {
+		ids = List.copyOf(ids);
+	}
+
+	/** Atajo para eventos sobre un único usuario. */
+	public static UserChangedEvent of(Type type, int id) {
+		return new UserChangedEvent(type, List.of(id));
+	}
+
+	/**
+	 * Indica si el cambio afecta a las columnas visibles en los listados
+	 * (email, nombre, rol, existencia). Un cambio de contraseña no.
+	 */
+	public boolean affectsListing() {
+		return type != Type.PASSWORD_CHANGED;
+	}
+}
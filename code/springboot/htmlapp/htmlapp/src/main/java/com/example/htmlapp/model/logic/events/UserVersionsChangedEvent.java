@@ -0,0 +1,25 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.events;
+
+import java.util.Map;
+
+/**
+ * Evento de aplicación con las nuevas versiones de usuarios modificados.
+ *
+ * Lo publica UserVersionRegistry después de procesar un UserChangedEvent
+ * (cuando ya conoce la versión de cada fila tras el commit). A diferencia
+ * de UserChangedEvent, su contenido es autosuficiente: basta para marcar
+ * sesiones como anticuadas sin consultar la base de datos, así que puede
+ * reenviarse a otras instancias (PostgresUserVersionBridge).
+ *
+ * @param versions Versión actual de cada usuario (UserVersionRegistry.DELETED
+ *                 si el usuario ya no existe).
+ * @param remote   true si el cambio se hizo en otra instancia.
+ */
+public record UserVersionsChangedEvent(Map<Integer, Long> versions, boolean remote) {
+
+	public UserVersionsChangedEvent {
+		versions = Map.copyOf(versions);
+	}
+}
@@ -0,0 +1,44 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Excepción que indica que el servidor está saturado y la petición se ha
+ * rechazado sin procesarla (HTTP 503).
+ *
+ * Incluye el tiempo recomendado antes de reintentar, que el manejador global
+ * (ErrorControllerAdvice) envía en la cabecera `Retry-After`.
+ *
+ * ----------------------------------------------------------------------------
+ * USO TÍPICO:
+ * ----------------------------------------------------------------------------
+ * throw new ServiceOverloadedException(
+ *     "Demasiados inicios de sesión simultáneos.", Duration.ofSeconds(2));
+ */
+public class ServiceOverloadedException extends OperationFailedException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Tiempo recomendado antes de reintentar. */
+	private final Duration retryAfter;
+
+	/**
+	 * @param message    Descripción del error.
+	 * @param retryAfter Tiempo recomendado antes de reintentar.
+	 */
+	public ServiceOverloadedException(String message, Duration retryAfter) {
+		super(message, 503);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Devuelve el tiempo recomendado antes de reintentar.
+	 *
+	 * @return Duración (nunca nula).
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+}
@@ -0,0 +1,75 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.passwords;
+
+import java.security.SecureRandom;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import com.example.htmlapp.model.enums.PasswordAlgorithm;
+
+/**
+ * BCrypt (implementación de spring-security-crypto).
+ *
+ * Formato estándar de BCrypt, que ya incluye versión, coste y salt:
+ *
+ *   $2a$<coste>$<salt de 22 caracteres><hash de 31 caracteres>
+ *
+ *   $2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW
+ *
+ * BCrypt genera su propio salt: la columna `users.salt` no se usa.
+ * Solo tiene en cuenta los primeros 72 bytes de la contraseña.
+ */
+public class BCryptPasswordHasher implements PasswordHasher {
+
+	private final int cost;
+	private final SecureRandom random;
+
+	/**
+	 * @param cost   Coste (log2 de rondas, 4..31) para los hashes nuevos.
+	 * @param random Generador aleatorio para los salts.
+	 */
+	public BCryptPasswordHasher(int cost, SecureRandom random) {
+		if (cost < 4 || cost > 31) {
+			throw new IllegalArgumentException("El coste de BCrypt debe estar entre 4 y 31.");
+		}
+		this.cost = cost;
+		this.random = random;
+	}
+
+	@Override
+	public PasswordAlgorithm algorithm() {
+		return PasswordAlgorithm.BCRYPT;
+	}
+
+	@Override
+	public boolean supports(String storedHash) {
+		return storedHash.startsWith("$2a$")
+			|| storedHash.startsWith("$2b$")
+			|| storedHash.startsWith("$2y$");
+	}
+
+	@Override
+	public String hash(String password, String salt) {
+		return BCrypt.hashpw(String.valueOf(password), BCrypt.gensalt(cost, random));
+	}
+
+	@Override
+	public boolean verify(String password, String salt, String storedHash) {
+		try {
+			return BCrypt.checkpw(String.valueOf(password), storedHash);
+		} catch (IllegalArgumentException ex) {
+			return false; // hash mal formado
+		}
+	}
+
+	@Override
+	public boolean needsRehash(String storedHash) {
+		// $2a$12$... → el coste son los dos dígitos tras el segundo '$'
+		try {
+			return Integer.parseInt(storedHash.substring(4, 6)) != cost;
+		} catch (RuntimeException ex) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.passwords;
+
+import com.example.htmlapp.model.enums.PasswordAlgorithm;
+
+/**
+ * Una implementación concreta de hash de contraseñas.
+ *
+ * Cada implementación produce hashes autodescriptivos: a partir del valor
+ * guardado en `users.password_hash` se sabe qué algoritmo y qué parámetros
+ * (coste, iteraciones) se usaron, sin depender de la configuración actual.
+ */
+public interface PasswordHasher {
+
+	/** Algoritmo que implementa. */
+	PasswordAlgorithm algorithm();
+
+	/**
+	 * Indica si un hash guardado tiene el formato de este algoritmo.
+	 *
+	 * @param storedHash Valor de `users.password_hash` (no nulo).
+	 */
+	boolean supports(String storedHash);
+
+	/**
+	 * Calcula el hash de una contraseña con los parámetros configurados.
+	 *
+	 * @param password Contraseña en texto plano.
+	 * @param salt     Salt en Base64 (columna `users.salt`). Los formatos que
+	 *                 llevan el salt dentro del hash pueden ignorarlo.
+	 * @return Hash en el formato de este algoritmo.
+	 */
+	String hash(String password, String salt);
+
+	/**
+	 * Verifica una contraseña contra un hash de este algoritmo.
+	 *
+	 * @param password   Contraseña en texto plano.
+	 * @param salt       Salt de la columna `users.salt`.
+	 * @param storedHash Hash guardado.
+	 * @return true si coincide.
+	 */
+	boolean verify(String password, String salt, String storedHash);
+
+	/**
+	 * Indica si un hash de este algoritmo se generó con parámetros distintos
+	 * de los configurados y conviene recalcularlo.
+	 *
+	 * @param storedHash Hash guardado.
+	 */
+	boolean needsRehash(String storedHash);
+}
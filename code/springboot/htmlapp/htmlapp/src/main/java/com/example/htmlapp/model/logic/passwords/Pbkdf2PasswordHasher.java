@@ -0,0 +1,119 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.passwords;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import com.example.htmlapp.model.enums.PasswordAlgorithm;
+
+/**
+ * PBKDF2 con HMAC-SHA256.
+ *
+ * Formato guardado en `users.password_hash`:
+ *
+ *   $pbkdf2-sha256$i=<iteraciones>$<salt Base64>$<hash Base64>
+ *
+ *   $pbkdf2-sha256$i=310000$q1Xk0d3yWm1gA8bH2y3ZJg==$3v1o...Q=
+ *
+ * El salt y las iteraciones viajan dentro del hash: si se cambia el número de
+ * iteraciones configurado, los hashes antiguos se siguen verificando con sus
+ * propias iteraciones y needsRehash() los marca para recalcularlos.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+	static final String PREFIX = "$pbkdf2-sha256$";
+
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+	private static final int KEY_BITS = 256;
+
+	private final int iterations;
+
+	/**
+	 * @param iterations Iteraciones para los hashes nuevos (coste).
+	 */
+	public Pbkdf2PasswordHasher(int iterations) {
+		if (iterations < 1) {
+			throw new IllegalArgumentException("Las iteraciones de PBKDF2 deben ser positivas.");
+		}
+		this.iterations = iterations;
+	}
+
+	@Override
+	public PasswordAlgorithm algorithm() {
+		return PasswordAlgorithm.PBKDF2;
+	}
+
+	@Override
+	public boolean supports(String storedHash) {
+		return storedHash.startsWith(PREFIX);
+	}
+
+	@Override
+	public String hash(String password, String salt) {
+		byte[] key = derive(password, Base64.getDecoder().decode(salt), iterations);
+		return PREFIX + "i=" + iterations + "$" + salt + "$"
+			+ Base64.getEncoder().encodeToString(key);
+	}
+
+	@Override
+	public boolean verify(String password, String salt, String storedHash) {
+		Parsed parsed = parse(storedHash);
+		if (parsed == null) {
+			return false;
+		}
+		byte[] key = derive(password, parsed.salt(), parsed.iterations());
+		return MessageDigest.isEqual(key, parsed.hash());
+	}
+
+	@Override
+	public boolean needsRehash(String storedHash) {
+		Parsed parsed = parse(storedHash);
+		return parsed == null || parsed.iterations() != iterations;
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	private record Parsed(int iterations, byte[] salt, byte[] hash) {}
+
+	/**
+	 * Descompone un hash con formato PBKDF2.
+	 *
+	 * @return Partes del hash, o null si el formato no es válido.
+	 */
+	private static Parsed parse(String storedHash) {
+		String[] parts = storedHash.substring(PREFIX.length()).split("\\$");
+		if (parts.length != 3 || !parts[0].startsWith("i=")) {
+			return null;
+		}
+		try {
+			return new Parsed(
+				Integer.parseInt(parts[0].substring(2)),
+				Base64.getDecoder().decode(parts[1]),
+				Base64.getDecoder().decode(parts[2])
+			);
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	private static byte[] derive(String password, byte[] salt, int iterations) {
+		PBEKeySpec spec = new PBEKeySpec(
+			String.valueOf(password).toCharArray(), salt, iterations, KEY_BITS);
+		try {
+			return SecretKeyFactory.getInstance(ALGORITHM)
+				.generateSecret(spec)
+				.getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException("Algoritmo " + ALGORITHM + " no disponible.", e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.model.logic.passwords;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import com.example.htmlapp.model.enums.PasswordAlgorithm;
+
+/**
+ * Formato original: SHA-256 de una sola vuelta.
+ *
+ *   password_hash = Base64(SHA256(utf8(password) || utf8(salt)))
+ *
+ * No lleva prefijo ni parámetros (el salt está en la columna `users.salt`),
+ * así que cualquier hash que no empiece por '$' se considera de este tipo.
+ *
+ * ----------------------------------------------------------------------------
+ * RENDIMIENTO Y CONCURRENCIA
+ * ----------------------------------------------------------------------------
+ * - Un MessageDigest y unos buffers por hilo (ThreadLocal): MessageDigest no
+ *   es thread-safe y crearlo en cada llamada es caro.
+ * - La contraseña y el salt se codifican a UTF-8 directamente en el buffer
+ *   del hilo, sin construir la cadena `password + salt`.
+ * - La comparación final se hace en tiempo constante.
+ */
+public class Sha256PasswordHasher implements PasswordHasher {
+
+	private static final int HASH_BYTES = 32;
+	private static final int ENCODED_HASH_CHARS = 44; // Base64 de 32 bytes
+
+	/** Estado reutilizable por hilo: digest y buffers. */
+	private static final ThreadLocal<Scratch> SCRATCH =
+		ThreadLocal.withInitial(Scratch::new);
+
+	@Override
+	public PasswordAlgorithm algorithm() {
+		return PasswordAlgorithm.SHA256;
+	}
+
+	@Override
+	public boolean supports(String storedHash) {
+		return !storedHash.startsWith("$");
+	}
+
+	@Override
+	public String hash(String password, String salt) {
+		Scratch scratch = SCRATCH.get();
+		int length = scratch.hashBase64(password, salt);
+		return new String(scratch.encoded, 0, length, StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public boolean verify(String password, String salt, String storedHash) {
+		Scratch scratch = SCRATCH.get();
+		int length = scratch.hashBase64(password, salt);
+		return constantTimeEquals(scratch.encoded, length, storedHash);
+	}
+
+	/** SHA-256 no tiene parámetros: nunca hay que recalcular por coste. */
+	@Override
+	public boolean needsRehash(String storedHash) {
+		return false;
+	}
+
+	// -------------------------------------------------------------------------
+	// UTILIDADES INTERNAS
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Compara en tiempo constante unos bytes ASCII con una cadena.
+	 * Solo la longitud de `expected` puede influir en el tiempo empleado.
+	 */
+	private static boolean constantTimeEquals(byte[] actual, int length, String expected) {
+		int expectedLength = expected.length();
+		int diff = length ^ expectedLength;
+		for (int i = 0; i < expectedLength; i++) {
+			int a = i < length ? actual[i] : 0;
+			diff |= a ^ expected.charAt(i);
+		}
+		return diff == 0;
+	}
+
+	/**
+	 * Digest y buffers de un hilo. Nunca se comparte entre hilos.
+	 */
+	private static final class Scratch {
+
+		private final MessageDigest digest;
+		private byte[] input = new byte[128];
+		private final byte[] hash = new byte[HASH_BYTES];
+		private final byte[] encoded = new byte[ENCODED_HASH_CHARS];
+
+		Scratch() {
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new RuntimeException("Algoritmo SHA-256 no disponible.", e);
+			}
+		}
+
+		/**
+		 * Calcula SHA-256(utf8(password) || utf8(salt)) y lo deja en Base64
+		 * dentro de `encoded`.
+		 *
+		 * @return Número de bytes escritos en `encoded`.
+		 */
+		int hashBase64(String password, String salt) {
+			int length = utf8(String.valueOf(password), 0);
+			length = utf8(String.valueOf(salt), length);
+
+			try {
+				digest.reset();
+				digest.update(input, 0, length);
+				digest.digest(hash, 0, HASH_BYTES);
+			} catch (DigestException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				// No dejar la contraseña en memoria más de lo necesario
+				Arrays.fill(input, 0, length, (byte) 0);
+			}
+
+			return Base64.getEncoder().encode(hash, encoded);
+		}
+
+		/**
+		 * Codifica `text` en UTF-8 a partir de la posición `offset` del buffer
+		 * de entrada (ampliándolo si hace falta). Igual que String.getBytes(),
+		 * un surrogate sin pareja se sustituye por '?'.
+		 *
+		 * @return Nueva posición final del buffer.
+		 */
+		private int utf8(String text, int offset) {
+			ensureCapacity(offset + text.length() * 3);
+
+			byte[] buf = input;
+			int pos = offset;
+			int n = text.length();
+			for (int i = 0; i < n; i++) {
+				char c = text.charAt(i);
+				if (c < 0x80) {
+					buf[pos++] = (byte) c;
+				} else if (c < 0x800) {
+					buf[pos++] = (byte) (0xC0 | (c >> 6));
+					buf[pos++] = (byte) (0x80 | (c & 0x3F));
+				} else if (Character.isHighSurrogate(c) && i + 1 < n
+						&& Character.isLowSurrogate(text.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, text.charAt(++i));
+					buf[pos++] = (byte) (0xF0 | (cp >> 18));
+					buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+					buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+					buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+				} else if (Character.isSurrogate(c)) {
+					buf[pos++] = (byte) '?';
+				} else {
+					buf[pos++] = (byte) (0xE0 | (c >> 12));
+					buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					buf[pos++] = (byte) (0x80 | (c & 0x3F));
+				}
+			}
+			return pos;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (input.length < capacity) {
+				Arrays.fill(input, (byte) 0);
+				input = new byte[Math.max(capacity, input.length * 2)];
+			}
+		}
+	}
+}
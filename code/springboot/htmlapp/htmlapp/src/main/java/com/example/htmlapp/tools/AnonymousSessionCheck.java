@@ -0,0 +1,172 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.tools;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Manager;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.htmlapp.HtmlApp;
+
+/**
+ * Comprueba que las páginas públicas no crean sesiones HTTP.
+ *
+ * Arranca la aplicación (con el servidor web en un puerto aleatorio y la base
+ * de datos de application.yml) y lanza muchas peticiones anónimas a / y
+ * /login sin cookies, como harían un robot o una comprobación de
+ * disponibilidad. Cada cierto número de peticiones muestra cuántas sesiones
+ * tiene Tomcat (activas y creadas desde el arranque).
+ *
+ * Si el número de sesiones crece, alguna parte del camino anónimo está
+ * llamando a request.getSession() (o usando el HttpSession inyectado) y el
+ * programa termina con código 1.
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ * mvn exec:java -Dexec.mainClass="com.example.htmlapp.tools.AnonymousSessionCheck" \
+ *   -Dexec.args="--requests 100000 --threads 32"
+ */
+public class AnonymousSessionCheck {
+
+	private static final List<String> PATHS = List.of("/", "/login");
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> params = parseArgs(args);
+		int requests = Integer.parseInt(params.getOrDefault("requests", "100000"));
+		int threads = Integer.parseInt(params.getOrDefault("threads", "32"));
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(HtmlApp.class)
+			.properties(
+				"server.port=0",
+				"spring.jpa.show-sql=false",
+				"spring.thymeleaf.cache=true",
+				"logging.level.org.hibernate.SQL=WARN",
+				"logging.level.org.hibernate.type=WARN"
+			)
+			.run();
+
+		int exitCode = 0;
+		try {
+			TomcatWebServer webServer = (TomcatWebServer)
+				((ServletWebServerApplicationContext) context).getWebServer();
+			Manager manager = ((Context) webServer.getTomcat().getHost().findChildren()[0])
+				.getManager();
+			String base = "http://localhost:" + webServer.getPort();
+
+			// Sin CookieHandler: cada petición llega sin cookie de sesión.
+			HttpClient client = HttpClient.newHttpClient();
+
+			System.out.printf("%n=== Sesiones con %d peticiones anónimas (%d hilos) ===%n",
+				requests, threads);
+			System.out.printf("%12s %10s %10s%n", "peticiones", "activas", "creadas");
+			print(0, manager);
+
+			long createdBefore = manager.getSessionCounter();
+			int step = Math.max(1, requests / 10);
+
+			for (int done = 0; done < requests; done += step) {
+				int batch = Math.min(step, requests - done);
+				send(client, base, batch, threads);
+				print(done + batch, manager);
+			}
+
+			long created = manager.getSessionCounter() - createdBefore;
+			if (created == 0) {
+				System.out.println("\nOK: ninguna petición anónima ha creado sesión.");
+			} else {
+				System.out.printf("%nERROR: se han creado %d sesiones.%n", created);
+				exitCode = 1;
+			}
+		} finally {
+			context.close();
+			System.exit(exitCode);
+		}
+	}
+
+	/**
+	 * Lanza `count` peticiones GET repartidas entre `threads` hilos.
+	 */
+	private static void send(HttpClient client, String base, int count, int threads)
+			throws Exception {
+		AtomicInteger next = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				futures[t] = pool.submit(() -> {
+					int i;
+					while ((i = next.getAndIncrement()) < count) {
+						HttpRequest request = HttpRequest
+							.newBuilder(URI.create(base + PATHS.get(i % PATHS.size())))
+							.GET()
+							.build();
+						HttpResponse<Void> response =
+							client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) {
+							throw new IllegalStateException(
+								"Respuesta inesperada: " + response.statusCode());
+						}
+					}
+					return null;
+				});
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void print(int done, Manager manager) {
+		System.out.printf("%12d %10d %10d%n",
+			done, manager.getActiveSessions(), manager.getSessionCounter());
+	}
+
+	/**
+	 * Analiza los argumentos con formato --clave valor.
+	 */
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "--requests", "--threads" -> {
+					if (i + 1 < args.length) map.put(arg.substring(2), args[++i]);
+				}
+				case "--help", "-h" -> {
+					showHelp();
+					System.exit(0);
+				}
+				default -> { /* ignorar argumentos no reconocidos */ }
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Muestra un mensaje de ayuda con ejemplos de uso.
+	 */
+	private static void showHelp() {
+		System.out.println("Uso:");
+		System.out.println("  mvn exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.AnonymousSessionCheck\" \\");
+		System.out.println("               -Dexec.args=\"[--requests 100000] [--threads 32]\"");
+	}
+}
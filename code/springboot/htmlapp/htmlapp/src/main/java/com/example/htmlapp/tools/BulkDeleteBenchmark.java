@@ -0,0 +1,208 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.htmlapp.HtmlApp;
+import com.example.htmlapp.model.db.User;
+import com.example.htmlapp.model.db.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Benchmark del borrado masivo de usuarios: compara el borrado derivado de
+ * Spring Data (SELECT de las entidades + un DELETE por cada una) con la
+ * sentencia única actual (UserRepository.deleteAllByIds()).
+ *
+ * Arranca el contexto de Spring contra la base de datos configurada en
+ * application.yml (con el servidor web en un puerto aleatorio). En cada
+ * ronda y para cada variante:
+ *  1. Inserta --users usuarios de prueba (emails @bulk-delete.invalid).
+ *  2. Los borra por lotes de --chunk-size IDs, un lote por transacción
+ *     (igual que UserListService.executeBulk()).
+ *  3. Comprueba que no queda ninguno.
+ *
+ * Para cada variante muestra:
+ *  - Sentencias SQL por lote (estadísticas de Hibernate).
+ *  - Tiempo total (mediana de las rondas) y usuarios borrados por segundo.
+ *
+ * Al terminar borra los usuarios de prueba que hubieran quedado. Si algún
+ * borrado no elimina todas las filas, el programa termina con código 1.
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ * mvn exec:java -Dexec.mainClass="com.example.htmlapp.tools.BulkDeleteBenchmark" \
+ *   -Dexec.args="--users 10000 --chunk-size 1000 --rounds 3"
+ */
+public class BulkDeleteBenchmark {
+
+	private static final String DOMAIN = "bulk-delete.invalid";
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> params = parseArgs(args);
+
+		int users = Integer.parseInt(params.getOrDefault("users", "10000"));
+		int chunkSize = Integer.parseInt(params.getOrDefault("chunk-size", "1000"));
+		int rounds = Integer.parseInt(params.getOrDefault("rounds", "3"));
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(HtmlApp.class)
+			.properties(
+				"server.port=0",
+				"spring.jpa.show-sql=false",
+				"spring.jpa.properties.hibernate.generate_statistics=true",
+				"logging.level.org.hibernate.SQL=WARN",
+				"logging.level.org.hibernate.type=WARN",
+				"logging.level.org.hibernate.stat=WARN"
+			)
+			.run();
+
+		int exitCode = 0;
+		JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+		try {
+			UserRepository userRepository = context.getBean(UserRepository.class);
+			TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+			Statistics stats = context.getBean(EntityManagerFactory.class)
+				.unwrap(SessionFactory.class)
+				.getStatistics();
+
+			// Antes: borrado derivado → SELECT + EntityManager.remove() por fila
+			ToIntFunction<List<Integer>> derived = ids -> {
+				List<User> found = userRepository.findAllById(ids);
+				userRepository.deleteAll(found);
+				return found.size();
+			};
+
+			// Ahora: DELETE FROM User u WHERE u.id IN :ids
+			ToIntFunction<List<Integer>> setBased = userRepository::deleteAllByIds;
+
+			System.out.printf("%n=== Borrado masivo (%d usuarios, lotes de %d, %d rondas) ===%n",
+				users, chunkSize, rounds);
+
+			run("antes (derivado)", derived, users, chunkSize, rounds, jdbc, tx, stats);
+			run("ahora (DELETE ... IN)", setBased, users, chunkSize, rounds, jdbc, tx, stats);
+
+		} catch (AssertionError ex) {
+			System.out.printf("%nERROR: %s%n", ex.getMessage());
+			exitCode = 1;
+		} finally {
+			jdbc.update("DELETE FROM users WHERE email LIKE ?", "%@" + DOMAIN);
+			context.close();
+			System.exit(exitCode);
+		}
+	}
+
+	/**
+	 * Ejecuta una variante `rounds` veces y muestra la mediana.
+	 */
+	private static void run(
+		String label,
+		ToIntFunction<List<Integer>> delete,
+		int users,
+		int chunkSize,
+		int rounds,
+		JdbcTemplate jdbc,
+		TransactionTemplate tx,
+		Statistics stats
+	) {
+		long[] times = new long[rounds];
+		long statements = 0;
+		int chunks = 0;
+
+		for (int r = 0; r < rounds; r++) {
+			List<Integer> ids = insertUsers(jdbc, users);
+
+			stats.clear();
+			int deleted = 0;
+			long start = System.nanoTime();
+			for (int from = 0; from < ids.size(); from += chunkSize) {
+				List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+				deleted += tx.execute(status -> delete.applyAsInt(chunk));
+				chunks++;
+			}
+			times[r] = System.nanoTime() - start;
+			statements += stats.getPrepareStatementCount();
+
+			Integer left = jdbc.queryForObject(
+				"SELECT count(*) FROM users WHERE email LIKE ?", Integer.class, "%@" + DOMAIN);
+			if (deleted != users || left == null || left != 0) {
+				throw new AssertionError(label + ": borrados " + deleted + " de " + users
+					+ ", quedan " + left);
+			}
+		}
+
+		Arrays.sort(times);
+		long median = times[rounds / 2];
+		System.out.printf("%-22s sentencias/lote=%.1f  tiempo=%.0f ms  usuarios/s=%.0f%n",
+			label,
+			(double) statements / chunks,
+			median / 1e6,
+			users / (median / 1e9));
+	}
+
+	/**
+	 * Inserta `count` usuarios de prueba y devuelve sus IDs.
+	 *
+	 * Sal y hash son de relleno: estos usuarios no pueden iniciar sesión.
+	 */
+	private static List<Integer> insertUsers(JdbcTemplate jdbc, int count) {
+		String run = Long.toString(System.nanoTime(), 36);
+		List<Object[]> rows = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			rows.add(new Object[] {
+				"u" + i + "-" + run + "@" + DOMAIN, "Benchmark " + i, "-", "-"
+			});
+		}
+		jdbc.batchUpdate(
+			"INSERT INTO users (email, full_name, salt, password_hash) VALUES (?, ?, ?, ?)",
+			rows);
+
+		return jdbc.queryForList(
+			"SELECT id_user FROM users WHERE email LIKE ? ORDER BY id_user",
+			Integer.class,
+			"%-" + run + "@" + DOMAIN);
+	}
+
+	/**
+	 * Analiza los argumentos con formato --clave valor.
+	 */
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "--users", "--chunk-size", "--rounds" -> {
+					if (i + 1 < args.length) map.put(arg.substring(2), args[++i]);
+				}
+				case "--help", "-h" -> {
+					showHelp();
+					System.exit(0);
+				}
+				default -> { /* ignorar argumentos no reconocidos */ }
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Muestra un mensaje de ayuda con ejemplos de uso.
+	 */
+	private static void showHelp() {
+		System.out.println("Uso:");
+		System.out.println("  mvn exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.BulkDeleteBenchmark\" \\");
+		System.out.println("               -Dexec.args=\"[--users 10000] [--chunk-size 1000] [--rounds 3]\"");
+	}
+}
@@ -0,0 +1,215 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.tools;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.htmlapp.HtmlApp;
+import com.example.htmlapp.model.db.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Comprueba que las consultas con listas de IDs ("WHERE u.id IN :ids") no
+ * generan un SQL distinto por cada tamaño de lista.
+ *
+ * Sin relleno, un lote de 7 IDs y otro de 8 son dos sentencias distintas
+ * ("IN (?,?,?,?,?,?,?)" e "IN (?,?,?,?,?,?,?,?)"): cada tamaño ocupa una
+ * entrada en la caché de planes de Hibernate y otra en la de sentencias
+ * preparadas de PostgreSQL. Con hibernate.query.in_clause_parameter_padding
+ * (application.yml) las listas se rellenan hasta la siguiente potencia de 2
+ * y solo quedan log2(tamaño máximo) + 1 variantes por consulta.
+ *
+ * Arranca el contexto de Spring contra la base de datos configurada en
+ * application.yml y reproduce --requests lotes masivos de tamaño aleatorio
+ * (entre 1 y --max-size IDs). Cada lote, en una transacción que se deshace
+ * al final (no modifica datos), ejecuta las consultas por lista de IDs de
+ * UserRepository:
+ *   findRowsByIdIn, findVersionsByIdIn, findExistingIds, claimIds,
+ *   updateAdminStatusByIds, deleteAllByIds
+ *
+ * Un StatementInspector anota cada SQL distinto con una lista IN enviado a
+ * la base de datos.
+ * Muestra:
+ *  - Sentencias SQL distintas, en total y por cada 1000 lotes.
+ *  - Aciertos y fallos de la caché de planes de Hibernate.
+ *
+ * Si las sentencias distintas superan 6 × (log2(--max-size) + 1), el
+ * programa termina con código 1. Con --padding false se desactiva el
+ * relleno, para ver el "antes" (y el programa falla).
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ * mvn exec:java -Dexec.mainClass="com.example.htmlapp.tools.InClausePlanCacheCheck" \
+ *   -Dexec.args="--requests 10000 --max-size 1000 --padding true"
+ */
+public class InClausePlanCacheCheck {
+
+	/** Consultas por lista de IDs que se ejecutan en cada lote. */
+	private static final int QUERIES = 6;
+
+	/**
+	 * Anota los SQL distintos con una lista IN que prepara Hibernate (las
+	 * demás sentencias, p. ej. tareas programadas, no cuentan).
+	 *
+	 * Hibernate lo crea a partir del nombre de la clase
+	 * (hibernate.session_factory.statement_inspector), por eso el conjunto es
+	 * estático.
+	 */
+	public static class SqlShapes implements StatementInspector {
+
+		private static final long serialVersionUID = 1L;
+
+		static final Set<String> SEEN = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public String inspect(String sql) {
+			if (sql.toLowerCase().contains(" in (")) {
+				SEEN.add(sql);
+			}
+			return sql;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> params = parseArgs(args);
+
+		int requests = Integer.parseInt(params.getOrDefault("requests", "10000"));
+		int maxSize = Integer.parseInt(params.getOrDefault("max-size", "1000"));
+		boolean padding = Boolean.parseBoolean(params.getOrDefault("padding", "true"));
+
+		// El relleno se pasa como argumento (no como propiedad por defecto)
+		// para que tenga prioridad sobre application.yml.
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(HtmlApp.class)
+			.properties(
+				"server.port=0",
+				"spring.jpa.show-sql=false",
+				"spring.jpa.properties.hibernate.generate_statistics=true",
+				"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+					+ SqlShapes.class.getName(),
+				"logging.level.org.hibernate.SQL=WARN",
+				"logging.level.org.hibernate.type=WARN",
+				"logging.level.org.hibernate.stat=WARN"
+			)
+			.run("--spring.jpa.properties.hibernate.query.in_clause_parameter_padding=" + padding);
+
+		int exitCode = 0;
+		try {
+			UserRepository userRepository = context.getBean(UserRepository.class);
+			TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+			Statistics stats = context.getBean(EntityManagerFactory.class)
+				.unwrap(SessionFactory.class)
+				.getStatistics();
+
+			System.out.printf("%n=== Listas IN de tamaño variable (%d lotes de 1 a %d IDs, relleno %s) ===%n",
+				requests, maxSize, padding ? "activado" : "desactivado");
+
+			SqlShapes.SEEN.clear();
+			stats.clear();
+			Random random = new Random(42);
+			long start = System.nanoTime();
+
+			for (int i = 1; i <= requests; i++) {
+				List<Integer> ids = randomIds(random, 1 + random.nextInt(maxSize));
+				boolean isAdmin = random.nextBoolean();
+
+				tx.executeWithoutResult(status -> {
+					userRepository.findRowsByIdIn(ids);
+					userRepository.findVersionsByIdIn(ids);
+					userRepository.findExistingIds(ids);
+					userRepository.claimIds(ids);
+					userRepository.updateAdminStatusByIds(ids, isAdmin);
+					userRepository.deleteAllByIds(ids);
+					status.setRollbackOnly();
+				});
+
+				if (i % 1000 == 0) {
+					System.out.printf("  %6d lotes → %5d sentencias distintas%n",
+						i, SqlShapes.SEEN.size());
+				}
+			}
+
+			long millis = (System.nanoTime() - start) / 1_000_000;
+			int shapes = SqlShapes.SEEN.size();
+			int bound = QUERIES * (log2Ceil(maxSize) + 1);
+
+			System.out.printf("%nSentencias distintas: %d (límite %d)%n", shapes, bound);
+			System.out.printf("Caché de planes de Hibernate: %d aciertos, %d fallos%n",
+				stats.getQueryPlanCacheHitCount(), stats.getQueryPlanCacheMissCount());
+			System.out.printf("Tiempo: %d ms (%.2f ms/lote)%n", millis, (double) millis / requests);
+
+			if (shapes > bound) {
+				throw new AssertionError("el número de sentencias distintas crece con el tamaño de"
+					+ " los lotes (" + shapes + " > " + bound + ")");
+			}
+			System.out.println("\nOK: el número de sentencias no depende del tamaño de los lotes.");
+
+		} catch (AssertionError ex) {
+			System.out.printf("%nERROR: %s%n", ex.getMessage());
+			exitCode = 1;
+		} finally {
+			context.close();
+			System.exit(exitCode);
+		}
+	}
+
+	/**
+	 * IDs distintos al azar (la mayoría no existen: solo importa el tamaño
+	 * de la lista).
+	 */
+	private static List<Integer> randomIds(Random random, int size) {
+		return random.ints(1, Integer.MAX_VALUE)
+			.distinct()
+			.limit(size)
+			.sorted()
+			.boxed()
+			.toList();
+	}
+
+	private static int log2Ceil(int n) {
+		return n <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+	}
+
+	/**
+	 * Analiza los argumentos con formato --clave valor.
+	 */
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "--requests", "--max-size", "--padding" -> {
+					if (i + 1 < args.length) map.put(arg.substring(2), args[++i]);
+				}
+				case "--help", "-h" -> {
+					showHelp();
+					System.exit(0);
+				}
+				default -> { /* ignorar argumentos no reconocidos */ }
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Muestra un mensaje de ayuda con ejemplos de uso.
+	 */
+	private static void showHelp() {
+		System.out.println("Uso:");
+		System.out.println("  mvn exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.InClausePlanCacheCheck\" \\");
+		System.out.println("               -Dexec.args=\"[--requests 10000] [--max-size 1000] [--padding true|false]\"");
+	}
+}
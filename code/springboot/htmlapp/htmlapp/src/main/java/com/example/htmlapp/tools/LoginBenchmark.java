@@ -0,0 +1,223 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.tools;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.htmlapp.HtmlApp;
+import com.example.htmlapp.model.db.UserRepository;
+import com.example.htmlapp.model.logic.AuthService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Benchmark del camino de login: compara la variante antigua (buscar por
+ * email y volver a cargar por ID para verificar) con la actual (verificar
+ * contra la fila ya cargada).
+ *
+ * Arranca el contexto de Spring contra la base de datos configurada en
+ * application.yml (con el servidor web en un puerto aleatorio) y ejecuta
+ * los dos caminos con varios hilos concurrentes. Para cada variante muestra:
+ *  - Sentencias SQL por login (estadísticas de Hibernate).
+ *  - Logins por segundo.
+ *  - Latencia p50 / p99 / máxima.
+ *
+ * No toca la sesión HTTP: mide exactamente las consultas y la verificación
+ * de contraseña que hace AuthService.login().
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ * mvn exec:java -Dexec.mainClass="com.example.htmlapp.tools.LoginBenchmark" \
+ *   -Dexec.args="--email admin@example.com --password admin1234 \
+ *                --threads 16 --iterations 5000 --warmup 1000"
+ *
+ * El usuario indicado debe existir (ver GenerateUserInsert).
+ */
+public class LoginBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> params = parseArgs(args);
+
+		String email = params.get("email");
+		String password = params.get("password");
+		int threads = Integer.parseInt(params.getOrDefault("threads", "16"));
+		int iterations = Integer.parseInt(params.getOrDefault("iterations", "5000"));
+		int warmup = Integer.parseInt(params.getOrDefault("warmup", "1000"));
+
+		if (email == null || password == null) {
+			System.err.println("Error: faltan argumentos obligatorios (--email y --password).");
+			showHelp();
+			System.exit(1);
+		}
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(HtmlApp.class)
+			.properties(
+				"server.port=0",
+				"spring.jpa.show-sql=false",
+				"spring.jpa.properties.hibernate.generate_statistics=true",
+				"spring.datasource.hikari.maximum-pool-size=" + Math.max(10, threads),
+				"logging.level.org.hibernate.SQL=WARN",
+				"logging.level.org.hibernate.type=WARN",
+				"logging.level.org.hibernate.stat=WARN"
+			)
+			.run();
+
+		int exitCode = 0;
+		try {
+			UserRepository userRepository = context.getBean(UserRepository.class);
+			AuthService authService = context.getBean(AuthService.class);
+			Statistics stats = context.getBean(EntityManagerFactory.class)
+				.unwrap(SessionFactory.class)
+				.getStatistics();
+
+			// Camino antiguo: email → id → findById → verificar
+			BiPredicate<String, String> twoQueries = (e, p) -> userRepository
+				.findByEmail(e)
+				.map(u -> authService.verifyPassword(u.getId(), p))
+				.orElse(false);
+
+			// Camino actual: email → verificar con la fila cargada
+			BiPredicate<String, String> singleQuery = (e, p) -> userRepository
+				.findByEmail(e)
+				.map(u -> authService.verifyPassword(u, p))
+				.orElse(false);
+
+			if (!singleQuery.test(email, password)) {
+				System.err.println("Error: las credenciales indicadas no son válidas.");
+				exitCode = 1;
+				return;
+			}
+
+			System.out.printf("%n=== Login benchmark (%d hilos, %d logins) ===%n",
+				threads, iterations);
+
+			run("antes (email + id)", twoQueries, email, password,
+				threads, warmup, iterations, stats);
+			run("ahora (solo email)", singleQuery, email, password,
+				threads, warmup, iterations, stats);
+		} finally {
+			context.close();
+			System.exit(exitCode);
+		}
+	}
+
+	/**
+	 * Ejecuta una variante: calentamiento, medición y resumen.
+	 */
+	private static void run(
+		String label,
+		BiPredicate<String, String> login,
+		String email,
+		String password,
+		int threads,
+		int warmup,
+		int iterations,
+		Statistics stats
+	) throws Exception {
+		measure(login, email, password, threads, warmup);
+
+		stats.clear();
+		long start = System.nanoTime();
+		long[] latencies = measure(login, email, password, threads, iterations);
+		long elapsed = System.nanoTime() - start;
+		long statements = stats.getPrepareStatementCount();
+
+		Arrays.sort(latencies);
+		System.out.printf(
+			"%-20s sentencias/login=%.2f  logins/s=%.0f  p50=%.3f ms  p99=%.3f ms  max=%.3f ms%n",
+			label,
+			(double) statements / iterations,
+			iterations / (elapsed / 1e9),
+			percentile(latencies, 0.50) / 1e6,
+			percentile(latencies, 0.99) / 1e6,
+			latencies[latencies.length - 1] / 1e6
+		);
+	}
+
+	/**
+	 * Lanza `iterations` logins repartidos entre `threads` hilos y devuelve la
+	 * latencia de cada uno en nanosegundos.
+	 */
+	private static long[] measure(
+		BiPredicate<String, String> login,
+		String email,
+		String password,
+		int threads,
+		int iterations
+	) throws Exception {
+		long[] latencies = new long[iterations];
+		AtomicInteger next = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			for (int t = 0; t < threads; t++) {
+				futures[t] = pool.submit(() -> {
+					int i;
+					while ((i = next.getAndIncrement()) < iterations) {
+						long t0 = System.nanoTime();
+						if (!login.test(email, password)) {
+							throw new IllegalStateException("Login fallido durante el benchmark.");
+						}
+						latencies[i] = System.nanoTime() - t0;
+					}
+				});
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		return latencies;
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		int index = (int) Math.ceil(p * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+
+	/**
+	 * Analiza los argumentos con formato --clave valor.
+	 */
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "--email", "--password", "--threads", "--iterations", "--warmup" -> {
+					if (i + 1 < args.length) map.put(arg.substring(2), args[++i]);
+				}
+				case "--help", "-h" -> {
+					showHelp();
+					System.exit(0);
+				}
+				default -> { /* ignorar argumentos no reconocidos */ }
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Muestra un mensaje de ayuda con ejemplos de uso.
+	 */
+	private static void showHelp() {
+		System.out.println("Uso:");
+		System.out.println("  mvn exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.LoginBenchmark\" \\");
+		System.out.println("               -Dexec.args=\"--email <email> --password <pwd> "
+			+ "[--threads 16] [--iterations 5000] [--warmup 1000]\"");
+	}
+}
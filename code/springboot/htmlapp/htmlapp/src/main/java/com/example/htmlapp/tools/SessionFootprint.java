@@ -0,0 +1,168 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import com.example.htmlapp.model.db.User;
+import com.example.htmlapp.model.logic.PasswordService;
+import com.example.htmlapp.model.logic.SessionUser;
+
+/**
+ * Mide lo que ocupa el usuario guardado en cada sesión HTTP: la entidad
+ * `User` completa (como se hacía antes) frente a `SessionUser`.
+ *
+ * Para cada variante muestra:
+ *  - Bytes serializados: lo que cuesta guardar o replicar la sesión
+ *    (persistencia de sesiones de Tomcat, Spring Session, etc.).
+ *  - Bytes de memoria por sesión: se crean N objetos independientes (cada
+ *    sesión tiene sus propias cadenas, como si vinieran de la BD) y se mide
+ *    la diferencia de memoria usada tras forzar el GC.
+ *
+ * No necesita base de datos ni arranca Spring. Los datos son realistas:
+ * email y nombre de longitud típica, salt de 24 caracteres y hash PBKDF2.
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ * mvn exec:java -Dexec.mainClass="com.example.htmlapp.tools.SessionFootprint" \
+ *   -Dexec.args="--sessions 100000"
+ */
+public class SessionFootprint {
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> params = parseArgs(args);
+		int sessions = Integer.parseInt(params.getOrDefault("sessions", "100000"));
+
+		PasswordService passwordService = new PasswordService();
+		String salt = passwordService.generateSalt();
+		String hash = passwordService.hashPassword("contraseña-de-prueba", salt);
+		LocalDateTime created = LocalDateTime.now();
+
+		IntFunction<User> entity = i -> User.builder()
+			.id(i)
+			.email("usuario.de.prueba" + i + "@empresa-ejemplo.com")
+			.emailDomain(new String("empresa-ejemplo.com"))
+			.fullName("Nombre Apellido Apellido " + i)
+			.salt(new String(salt))
+			.passwordHash(new String(hash))
+			.isAdmin(false)
+			.creationTimestamp(created.plusSeconds(i))
+			.version(3)
+			.build();
+
+		IntFunction<Object> before = entity::apply;
+		IntFunction<Object> after = i -> SessionUser.of(entity.apply(i));
+
+		System.out.printf("%n=== Tamaño del usuario en sesión (%d sesiones) ===%n", sessions);
+		System.out.printf("%-22s %14s %16s %18s%n",
+			"", "serializado", "memoria/sesión", "memoria total");
+
+		long[] old = report("antes (User)", before, sessions);
+		long[] now = report("ahora (SessionUser)", after, sessions);
+
+		System.out.printf("%nAhorro: %d bytes serializados y ~%d bytes de memoria por sesión"
+			+ " (~%d MB con %d sesiones)%n",
+			old[0] - now[0],
+			old[1] - now[1],
+			(old[1] - now[1]) * sessions / (1024 * 1024),
+			sessions);
+	}
+
+	/**
+	 * Mide y muestra una variante. Devuelve {bytes serializados, bytes/sesión}.
+	 */
+	private static long[] report(String label, IntFunction<Object> factory, int sessions)
+			throws IOException {
+		long serialized = serializedSize(factory.apply(1));
+		long perSession = heapPerObject(factory, sessions);
+
+		System.out.printf("%-22s %11d B %13d B %15d MB%n",
+			label,
+			serialized,
+			perSession,
+			perSession * sessions / (1024 * 1024));
+		return new long[] { serialized, perSession };
+	}
+
+	/**
+	 * Bytes que ocupa el objeto con la serialización estándar de Java (la que
+	 * usa Tomcat al guardar sesiones en disco).
+	 */
+	private static long serializedSize(Object value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		return bytes.size();
+	}
+
+	/**
+	 * Memoria media por objeto: crea `count` objetos, los mantiene vivos y
+	 * compara la memoria usada antes y después.
+	 */
+	private static long heapPerObject(IntFunction<Object> factory, int count) {
+		Object[] holder = new Object[count];
+		long baseline = usedMemory();
+
+		for (int i = 0; i < count; i++) {
+			holder[i] = factory.apply(i);
+		}
+		long used = usedMemory() - baseline;
+
+		// Mantiene `holder` vivo hasta después de la medición.
+		if (holder[count - 1] == null) {
+			throw new IllegalStateException();
+		}
+		return used / count;
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Analiza los argumentos con formato --clave valor.
+	 */
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "--sessions" -> {
+					if (i + 1 < args.length) map.put(arg.substring(2), args[++i]);
+				}
+				case "--help", "-h" -> {
+					showHelp();
+					System.exit(0);
+				}
+				default -> { /* ignorar argumentos no reconocidos */ }
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Muestra un mensaje de ayuda con ejemplos de uso.
+	 */
+	private static void showHelp() {
+		System.out.println("Uso:");
+		System.out.println("  mvn exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.SessionFootprint\" \\");
+		System.out.println("               -Dexec.args=\"[--sessions 100000]\"");
+	}
+}
@@ -0,0 +1,221 @@
+// vim: set tabstop=2 softtabstop=2 shiftwidth=2 noexpandtab textwidth=80 :
+
+package com.example.htmlapp.tools;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import com.example.htmlapp.HtmlApp;
+import com.example.htmlapp.config.JdbcSessionMaintenance;
+import com.example.htmlapp.model.logic.SessionUser;
+
+/**
+ * Comprueba que dos instancias de la aplicación comparten las sesiones
+ * guardadas en la base de datos (htmlapp.sessions.store=jdbc).
+ *
+ * Arranca DOS contextos de Spring en el mismo proceso, cada uno con su
+ * servidor web en un puerto aleatorio y su propio pool de conexiones, pero
+ * apuntando a la misma base de datos:
+ *
+ *  1. A crea una sesión con un SessionUser.
+ *  2. B la lee, cambia el usuario y añade un atributo.
+ *  3. A ve los cambios hechos por B.
+ *  4. Una petición HTTP a /main de B con la cookie de la sesión responde
+ *     200 (la página exige usuario logado).
+ *  5. La sesión, caducada a mano, la borra la limpieza por lotes de A y B
+ *     deja de encontrarla.
+ *
+ * Si algún paso falla, el programa termina con código 1.
+ *
+ * Base de datos:
+ *   - por defecto, la de application.yml (PostgreSQL)
+ *   - con --h2, una base de datos H2 en memoria (perfil Maven h2); no
+ *     necesita PostgreSQL
+ *
+ * ----------------------------------------------------------------------------
+ * USO:
+ * ----------------------------------------------------------------------------
+ * mvn exec:java -Dexec.mainClass="com.example.htmlapp.tools.SharedSessionCheck"
+ * mvn -Ph2 exec:java -Dexec.mainClass="com.example.htmlapp.tools.SharedSessionCheck" \
+ *   -Dexec.args="--h2"
+ */
+public class SharedSessionCheck {
+
+	private static final String H2_URL =
+		"jdbc:h2:mem:htmlapp_sessions;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> params = parseArgs(args);
+		boolean h2 = params.containsKey("h2");
+
+		ConfigurableApplicationContext a = null;
+		ConfigurableApplicationContext b = null;
+		int exitCode = 0;
+
+		try {
+			a = start(h2);
+			b = start(h2);
+			check(a, b);
+			System.out.println("\nOK: las dos instancias comparten las sesiones.");
+		} catch (AssertionError ex) {
+			System.out.printf("%nERROR: %s%n", ex.getMessage());
+			exitCode = 1;
+		} finally {
+			if (b != null) b.close();
+			if (a != null) a.close();
+			System.exit(exitCode);
+		}
+	}
+
+	private static void check(ConfigurableApplicationContext a, ConfigurableApplicationContext b)
+			throws Exception {
+		SessionRepository<Session> repoA = repository(a);
+		SessionRepository<Session> repoB = repository(b);
+
+		System.out.println("\n=== Sesiones compartidas entre dos instancias ===");
+
+		// 1. A crea la sesión
+		SessionUser user = new SessionUser(1, "ana@example.com", "Ana Pérez", false, 1);
+		Session created = repoA.createSession();
+		created.setAttribute("user", user);
+		repoA.save(created);
+		String id = created.getId();
+		System.out.println("A: sesión creada " + id);
+
+		// 2. B la lee y la modifica
+		Session inB = repoB.findById(id);
+		expect(inB != null, "B no encuentra la sesión creada por A");
+		expect(user.equals(inB.getAttribute("user")), "B lee un usuario distinto: "
+			+ inB.getAttribute("user"));
+
+		SessionUser promoted = new SessionUser(1, "ana@example.com", "Ana Pérez", true, 2);
+		inB.setAttribute("user", promoted);
+		inB.setAttribute("visits", 2);
+		repoB.save(inB);
+		System.out.println("B: usuario leído y modificado");
+
+		// 3. A ve los cambios
+		Session again = repoA.findById(id);
+		expect(promoted.equals(again.getAttribute("user")), "A no ve el usuario modificado por B");
+		expect(Integer.valueOf(2).equals(again.getAttribute("visits")),
+			"A no ve el atributo añadido por B");
+		System.out.println("A: cambios de B visibles");
+
+		// 4. Petición HTTP a B con la cookie de la sesión
+		String cookie = "SESSION=" + Base64.getEncoder()
+			.encodeToString(id.getBytes(StandardCharsets.UTF_8));
+		HttpResponse<Void> response = HttpClient.newHttpClient().send(
+			HttpRequest.newBuilder(URI.create(baseUrl(b) + "/main"))
+				.header("Cookie", cookie)
+				.GET()
+				.build(),
+			HttpResponse.BodyHandlers.discarding());
+		expect(response.statusCode() == 200,
+			"GET /main en B con la sesión de A responde " + response.statusCode());
+		System.out.println("B: GET /main con la cookie de la sesión → 200");
+
+		// 5. Limpieza por lotes
+		again.setMaxInactiveInterval(Duration.ofSeconds(1));
+		again.setLastAccessedTime(again.getLastAccessedTime().minusSeconds(60));
+		repoA.save(again);
+		int cleaned = a.getBean(JdbcSessionMaintenance.class).cleanUpExpiredSessions();
+		expect(cleaned >= 1, "la limpieza no ha borrado la sesión caducada");
+		expect(repoB.findById(id) == null, "B sigue encontrando la sesión borrada");
+		System.out.println("A: limpieza de caducadas → " + cleaned + " borrada(s)");
+	}
+
+	/**
+	 * Arranca una instancia con el almacén de sesiones JDBC.
+	 */
+	private static ConfigurableApplicationContext start(boolean h2) {
+		List<String> properties = new ArrayList<>(List.of(
+			"server.port=0",
+			"htmlapp.sessions.store=jdbc",
+			"spring.jpa.show-sql=false",
+			"logging.level.org.hibernate.SQL=WARN",
+			"logging.level.org.hibernate.type=WARN"
+		));
+
+		if (h2) {
+			// La tabla users usa funciones de PostgreSQL: en H2 no se crea
+			// (esta comprobación no la necesita).
+			properties.addAll(List.of(
+				"spring.datasource.url=" + H2_URL,
+				"spring.datasource.username=sa",
+				"spring.datasource.password=",
+				"spring.datasource.driver-class-name=org.h2.Driver",
+				"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+				"spring.jpa.hibernate.ddl-auto=none",
+				"htmlapp.email-filter.enabled=false",
+				"htmlapp.sessions.jdbc.platform=h2"
+			));
+		}
+
+		return new SpringApplicationBuilder(HtmlApp.class)
+			.properties(properties.toArray(String[]::new))
+			.run();
+	}
+
+	/*
+	 * El repositorio es un JdbcIndexedSessionRepository; su tipo de sesión
+	 * no es público, así que se usa a través de la interfaz.
+	 */
+	@SuppressWarnings("unchecked")
+	private static SessionRepository<Session> repository(ConfigurableApplicationContext context) {
+		return context.getBean(SessionRepository.class);
+	}
+
+	private static String baseUrl(ConfigurableApplicationContext context) {
+		return "http://localhost:"
+			+ ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	private static void expect(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	/**
+	 * Analiza los argumentos con formato --clave.
+	 */
+	private static Map<String, String> parseArgs(String[] args) {
+		Map<String, String> map = new HashMap<>();
+		for (String arg : args) {
+			switch (arg) {
+				case "--h2" -> map.put("h2", "true");
+				case "--help", "-h" -> {
+					showHelp();
+					System.exit(0);
+				}
+				default -> { /* ignorar argumentos no reconocidos */ }
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Muestra un mensaje de ayuda con ejemplos de uso.
+	 */
+	private static void showHelp() {
+		System.out.println("Uso:");
+		System.out.println("  mvn exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.SharedSessionCheck\"");
+		System.out.println("  mvn -Ph2 exec:java -Dexec.mainClass=\"com.example.htmlapp.tools.SharedSessionCheck\" \\");
+		System.out.println("                    -Dexec.args=\"--h2\"");
+	}
+}